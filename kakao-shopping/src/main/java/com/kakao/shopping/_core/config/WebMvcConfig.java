@@ -0,0 +1,18 @@
+package com.kakao.shopping._core.config;
+
+import com.kakao.shopping._core.interceptor.CheckoutAdmissionInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@RequiredArgsConstructor
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+    private final CheckoutAdmissionInterceptor checkoutAdmissionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(checkoutAdmissionInterceptor).addPathPatterns("/order");
+    }
+}
@@ -0,0 +1,20 @@
+package com.kakao.shopping._core.errors.exception;
+
+import com.kakao.shopping._core.utils.ApiUtils;
+import org.springframework.http.HttpStatus;
+
+public class DuplicateRequestException extends RuntimeException implements CustomException {
+    public DuplicateRequestException(String message) {
+        super(message);
+    }
+
+    @Override
+    public ApiUtils.ApiResult<?> body() {
+        return ApiUtils.error(getMessage(), HttpStatus.CONFLICT);
+    }
+
+    @Override
+    public HttpStatus status() {
+        return HttpStatus.CONFLICT;
+    }
+}
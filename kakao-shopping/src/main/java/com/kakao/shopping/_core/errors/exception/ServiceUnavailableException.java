@@ -0,0 +1,25 @@
+package com.kakao.shopping._core.errors.exception;
+
+import com.kakao.shopping._core.utils.ApiUtils;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+public class ServiceUnavailableException extends RuntimeException implements CustomException {
+    private final long retryAfter;
+
+    public ServiceUnavailableException(String message, long retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public ApiUtils.ApiResult<?> body() {
+        return ApiUtils.error(getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Override
+    public HttpStatus status() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+}
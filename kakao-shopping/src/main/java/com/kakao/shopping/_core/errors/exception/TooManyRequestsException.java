@@ -0,0 +1,25 @@
+package com.kakao.shopping._core.errors.exception;
+
+import com.kakao.shopping._core.utils.ApiUtils;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+public class TooManyRequestsException extends RuntimeException implements CustomException {
+    private final long retryAfter;
+
+    public TooManyRequestsException(String message, long retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public ApiUtils.ApiResult<?> body() {
+        return ApiUtils.error(getMessage(), HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Override
+    public HttpStatus status() {
+        return HttpStatus.TOO_MANY_REQUESTS;
+    }
+}
@@ -0,0 +1,5 @@
+package com.kakao.shopping._core.id;
+
+public interface IdGenerator {
+    long nextId();
+}
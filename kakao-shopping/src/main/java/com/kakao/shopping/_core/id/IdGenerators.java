@@ -0,0 +1,34 @@
+package com.kakao.shopping._core.id;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+entity 이름별로 사용할 IdGenerator 를 보관한다.
+Hibernate 가 직접 생성하는 ShoppingIdGenerator 와, native query 로 insert 하는 코드가 같은 generator 를 쓰도록 하기 위해 사용한다.
+ */
+public final class IdGenerators {
+    private static final Map<String, IdGenerator> generators = new ConcurrentHashMap<>();
+    private static final Map<Long, IdGenerator> snowflakes = new ConcurrentHashMap<>();
+
+    private IdGenerators() {
+    }
+
+    public static IdGenerator register(String entityName, String strategy, long nodeId) {
+        IdGenerator generator = switch (strategy) {
+            case "snowflake" -> snowflakes.computeIfAbsent(nodeId, SnowflakeIdGenerator::new);
+            case "sequential" -> new SequentialIdGenerator();
+            default -> throw new IllegalArgumentException("지원하지 않는 id 생성 방식입니다: " + strategy);
+        };
+        generators.put(entityName, generator);
+        return generator;
+    }
+
+    public static IdGenerator of(Class<?> entityClass) {
+        IdGenerator generator = generators.get(entityClass.getName());
+        if (generator == null) {
+            throw new IllegalStateException("id generator 가 등록되지 않은 entity 입니다: " + entityClass.getName());
+        }
+        return generator;
+    }
+}
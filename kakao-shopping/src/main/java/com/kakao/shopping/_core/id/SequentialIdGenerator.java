@@ -0,0 +1,13 @@
+package com.kakao.shopping._core.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// 테스트처럼 매번 스키마를 새로 만드는 환경에서 1 부터 차례로 id 를 발급한다.
+public class SequentialIdGenerator implements IdGenerator {
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Override
+    public long nextId() {
+        return sequence.incrementAndGet();
+    }
+}
@@ -0,0 +1,35 @@
+package com.kakao.shopping._core.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Properties;
+
+/*
+IDENTITY 대신 애플리케이션에서 id 를 미리 발급하여 Hibernate 가 insert 를 JDBC batch 로 묶을 수 있게 한다.
+방식과 node id 는 spring.jpa.properties 의 shopping.id.strategy, shopping.id.node-id 로 설정한다.
+ */
+public class ShoppingIdGenerator implements IdentifierGenerator {
+    public static final String NAME = "shopping-id";
+    public static final String STRATEGY = "com.kakao.shopping._core.id.ShoppingIdGenerator";
+
+    private IdGenerator generator;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+        Map<String, Object> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        String strategy = String.valueOf(settings.getOrDefault("shopping.id.strategy", "snowflake"));
+        long nodeId = Long.parseLong(String.valueOf(settings.getOrDefault("shopping.id.node-id", "0")));
+        generator = IdGenerators.register(params.getProperty(ENTITY_NAME), strategy, nodeId);
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        return generator.nextId();
+    }
+}
@@ -0,0 +1,70 @@
+package com.kakao.shopping._core.id;
+
+import java.time.Instant;
+
+/*
+41 bit 시간(ms) + 5 bit node id + 7 bit sequence 로 구성된 53 bit id 를 만든다.
+JSON 으로 내보낸 id 를 JavaScript Number 로 읽어도 반올림되지 않도록 Number.MAX_SAFE_INTEGER(2^53 - 1) 를 넘지 않게 한다.
+같은 node 안에서는 항상 증가하고, node 가 달라도 대략 생성 시간 순서를 따른다.
+시계가 뒤로 돌아가면 마지막으로 사용한 시간이 될 때까지 기다린다.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+    private static final long EPOCH = Instant.parse("2023-01-01T00:00:00Z").toEpochMilli();
+    private static final int TIMESTAMP_BITS = 41;
+    private static final int NODE_BITS = 5;
+    private static final int SEQUENCE_BITS = 7;
+    private static final long MAX_TIMESTAMP = (1L << TIMESTAMP_BITS) - 1;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private long lastTimestamp = -1L;
+    private long sequence = 0L;
+
+    public SnowflakeIdGenerator(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("node id 는 0 이상 " + MAX_NODE_ID + " 이하여야 합니다: " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public synchronized long nextId() {
+        long timestamp = currentTimeMillis();
+        if (timestamp < lastTimestamp) {
+            timestamp = waitUntil(lastTimestamp);
+        }
+
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                timestamp = waitUntil(lastTimestamp + 1);
+            }
+        }
+        else {
+            sequence = 0L;
+        }
+
+        if (timestamp - EPOCH > MAX_TIMESTAMP) {
+            throw new IllegalStateException("id 에 사용할 수 있는 시간 범위를 넘었습니다.");
+        }
+
+        lastTimestamp = timestamp;
+        return ((timestamp - EPOCH) << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private long waitUntil(long target) {
+        long timestamp = currentTimeMillis();
+        while (timestamp < target) {
+            Thread.onSpinWait();
+            timestamp = currentTimeMillis();
+        }
+        return timestamp;
+    }
+}
@@ -0,0 +1,180 @@
+package com.kakao.shopping._core.idempotency;
+
+import com.kakao.shopping._core.errors.exception.DuplicateRequestException;
+import com.kakao.shopping._core.idempotency.IdempotencyStore.StoredResponse;
+import com.kakao.shopping._core.security.CustomUserDetails;
+import com.kakao.shopping._core.security.SecurityConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Set;
+
+/*
+POST /order, POST /cart 요청에 Idempotency-Key 헤더가 있으면 같은 사용자의 같은 key 요청을 한 번만 처리한다.
+이미 처리된 key 는 저장된 응답을 그대로 돌려주고, 처리 중인 key 는 409 로 응답한다.
+같은 key 를 다른 본문의 요청에 다시 쓰면 저장된 응답을 돌려주지 않고 409 로 응답하도록 본문의 hash 를 함께 저장한다.
+Security filter 다음에 실행되어야 인증된 사용자를 알 수 있으므로 기본 순서(LOWEST_PRECEDENCE)로 등록한다.
+ */
+@RequiredArgsConstructor
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "Idempotency-Key";
+    private static final Set<String> PATHS = Set.of("/order", "/cart");
+
+    private final IdempotencyStore idempotencyStore;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !PATHS.contains(request.getServletPath())
+                || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof CustomUserDetails userDetails)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String key = userDetails.getUserAccount().getId() + ":" + request.getServletPath() + ":" + request.getHeader(HEADER);
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String requestHash = hash(cachedRequest.body);
+        if (replay(response, idempotencyStore.find(key), requestHash)) {
+            return;
+        }
+        if (!idempotencyStore.begin(key, requestHash)) {
+            SecurityConfig.createErrorResponse(response, new DuplicateRequestException("이미 처리 중인 요청입니다."));
+            return;
+        }
+        // find 와 begin 사이에 같은 key 의 처리가 끝났을 수 있다.
+        if (replay(response, idempotencyStore.find(key), requestHash)) {
+            idempotencyStore.abandon(key);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(cachedRequest, wrapper);
+        }
+        catch (IOException | ServletException | RuntimeException exception) {
+            idempotencyStore.abandon(key);
+            throw exception;
+        }
+
+        if (wrapper.getStatus() >= 200 && wrapper.getStatus() < 300) {
+            idempotencyStore.complete(key, new StoredResponse(wrapper.getStatus(), wrapper.getContentType(), wrapper.getContentAsByteArray(), requestHash));
+        }
+        else {
+            idempotencyStore.abandon(key);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    // 저장된 응답이 있으면 본문이 같을 때는 그대로, 다를 때는 409 로 응답하고 true 를 반환한다.
+    private static boolean replay(HttpServletResponse response, StoredResponse stored, String requestHash) throws IOException {
+        if (stored == null) {
+            return false;
+        }
+        if (!stored.matches(requestHash)) {
+            SecurityConfig.createErrorResponse(response, new DuplicateRequestException("이미 다른 요청에 사용된 Idempotency-Key 입니다."));
+            return true;
+        }
+
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.getOutputStream().write(stored.body());
+        return true;
+    }
+
+    private static String hash(byte[] body) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(body));
+        }
+        catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    // hash 를 구하려고 먼저 읽은 본문을 controller 에서 다시 읽을 수 있도록 보관한다.
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return inputStream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // 본문을 이미 모두 읽어 두었으므로 listener 를 등록하는 즉시 읽을 수 있고, 곧바로 끝까지 읽은 것으로 알린다.
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    }
+                    catch (IOException exception) {
+                        readListener.onError(exception);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return inputStream.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return inputStream.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() == null ? StandardCharsets.UTF_8 : Charset.forName(getCharacterEncoding());
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
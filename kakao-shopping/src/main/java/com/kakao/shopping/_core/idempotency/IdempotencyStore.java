@@ -0,0 +1,120 @@
+package com.kakao.shopping._core.idempotency;
+
+import com.kakao.shopping._core.utils.cache.LruCache;
+import com.kakao.shopping.domain.IdempotencyRecord;
+import com.kakao.shopping.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/*
+최근에 처리한 Idempotency-Key 의 응답을 메모리 LRU 에 두고, 재시작이나 eviction 에 대비해 idempotency_record 테이블에도 보관한다.
+테이블 저장은 별도 스레드에서 처리하여 요청 처리 중에 추가 트랜잭션이 생기지 않도록 한다.
+처리 중인 key 와 아직 테이블에 저장되지 않은 응답은 LRU 에서 밀려나면 중복 요청을 막을 수 없으므로 별도의 map 에 고정해 둔다.
+ */
+@Component
+public class IdempotencyStore {
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final LruCache<String, StoredResponse> cache;
+    private final Map<String, String> inProgress = new ConcurrentHashMap<>();
+    private final Map<String, StoredResponse> unsaved = new ConcurrentHashMap<>();
+    private final Duration retention;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "idempotency-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public IdempotencyStore(
+            IdempotencyRecordRepository recordRepository,
+            @Value("${shopping.idempotency.cache-size:10000}") int cacheSize,
+            @Value("${shopping.idempotency.retention:24h}") Duration retention
+    ) {
+        this.recordRepository = recordRepository;
+        this.cache = new LruCache<>(cacheSize);
+        this.retention = retention;
+    }
+
+    // 처리가 끝난 key 의 응답을, 처리된 적이 없거나 처리 중인 key 이면 null 을 반환한다.
+    public StoredResponse find(String key) {
+        StoredResponse cached = cache.get(key);
+        if (cached == null) {
+            cached = unsaved.get(key);
+        }
+        if (cached != null) {
+            return cached;
+        }
+
+        StoredResponse stored = recordRepository.findById(key)
+                .map(record -> new StoredResponse(record.getStatus(), record.getContentType(), record.getBody(), record.getRequestHash()))
+                .orElse(null);
+        if (stored != null) {
+            cache.put(key, stored);
+        }
+        return stored;
+    }
+
+    // 같은 key 를 처리 중인 요청이 없을 때만 true 를 반환하며, complete 또는 abandon 이 호출될 때까지 유지된다.
+    public boolean begin(String key, String requestHash) {
+        return inProgress.putIfAbsent(key, requestHash) == null;
+    }
+
+    // 응답을 조회할 수 있게 한 뒤에 처리 중 표시를 지워야 그 사이에 들어온 같은 key 의 요청이 다시 처리되지 않는다.
+    public void complete(String key, StoredResponse response) {
+        unsaved.put(key, response);
+        cache.put(key, response);
+        inProgress.remove(key);
+        writer.execute(() -> {
+            try {
+                recordRepository.save(IdempotencyRecord.of(key, response.status(), response.contentType(), response.body(), response.requestHash()));
+            }
+            catch (RuntimeException exception) {
+                log.warn("idempotency key 저장 실패: {}", key, exception);
+            }
+            finally {
+                unsaved.remove(key);
+            }
+        });
+    }
+
+    public void abandon(String key) {
+        inProgress.remove(key);
+    }
+
+    @Scheduled(cron = "${shopping.idempotency.purge-cron:0 0 * * * *}")
+    public void purge() {
+        recordRepository.deleteAllByCreatedAtBefore(LocalDateTime.now().minus(retention));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    public record StoredResponse(
+            int status,
+            String contentType,
+            byte[] body,
+            String requestHash
+    ) {
+        // 요청 본문의 hash 를 저장하기 전에 기록된 응답은 비교하지 않는다.
+        public boolean matches(String requestHash) {
+            return this.requestHash == null || Objects.equals(this.requestHash, requestHash);
+        }
+    }
+}
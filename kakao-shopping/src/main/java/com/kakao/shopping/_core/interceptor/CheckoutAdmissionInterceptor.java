@@ -0,0 +1,52 @@
+package com.kakao.shopping._core.interceptor;
+
+import com.kakao.shopping._core.errors.exception.TooManyRequestsException;
+import com.kakao.shopping._core.security.CustomUserDetails;
+import com.kakao.shopping.service.CheckoutQueue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/*
+POST /order 요청이 대기열에서 입장한 토큰(X-Queue-Token)을 가지고 있는지 확인한다.
+입장하지 않은 요청은 서비스 계층에 들어가기 전에 429 와 Retry-After 로 바로 돌려보내고,
+입장한 요청은 성공, 실패와 관계없이 처리가 끝나면 토큰을 반납하여 다음 대기자가 입장할 수 있게 한다.
+ */
+@RequiredArgsConstructor
+@Component
+public class CheckoutAdmissionInterceptor implements HandlerInterceptor {
+    public static final String HEADER = "X-Queue-Token";
+    private static final String ADMITTED_TOKEN = CheckoutAdmissionInterceptor.class.getName() + ".ADMITTED_TOKEN";
+
+    private final CheckoutQueue checkoutQueue;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!checkoutQueue.isEnabled() || !"POST".equals(request.getMethod())) {
+            return true;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof CustomUserDetails userDetails)) {
+            return true;
+        }
+
+        if (!checkoutQueue.isAdmitted(request.getHeader(HEADER), userDetails.getUserAccount().getId())) {
+            throw new TooManyRequestsException("주문 대기 중입니다. 대기열 순서가 되면 다시 시도해주세요.", checkoutQueue.getRetryAfter());
+        }
+        request.setAttribute(ADMITTED_TOKEN, request.getHeader(HEADER));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception exception) {
+        if (request.getAttribute(ADMITTED_TOKEN) instanceof String token) {
+            checkoutQueue.release(token);
+        }
+    }
+}
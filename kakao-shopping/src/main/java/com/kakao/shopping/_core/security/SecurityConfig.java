@@ -68,7 +68,7 @@ public class SecurityConfig {
                 .and()
                 .authorizeRequests()
                 .mvcMatchers("/cart/**", "/option/**", "/order/**", "/user/**").authenticated()
-                .mvcMatchers("/admin/**").hasRole("ADMIN")
+                .mvcMatchers("/admin/**", "/actuator/metrics/**").hasRole("ADMIN")
                 .anyRequest().permitAll()
 
                 .and()
@@ -0,0 +1,79 @@
+package com.kakao.shopping._core.utils.cache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+
+/*
+LruCache 에 항목별 만료 시간을 더한 메모리 캐시. 만료된 항목은 조회할 때 제거한다.
+조회 성공/실패 수와 크기 제한 또는 만료로 제거된 수를 세어 두어 metric 으로 내보낼 수 있게 한다.
+ */
+public class ExpiringLruCache<K, V> {
+    private final LruCache<K, Expiring<V>> cache;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpiringLruCache(int maxSize, Duration ttl) {
+        this.cache = new LruCache<>(maxSize, (key, value) -> evictions.increment());
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public V get(K key) {
+        Expiring<V> entry = cache.get(key);
+        if (entry != null && entry.isExpired()) {
+            if (cache.remove(key, entry)) {
+                evictions.increment();
+            }
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    public void put(K key, V value) {
+        cache.put(key, new Expiring<>(value, System.nanoTime() + ttlNanos));
+    }
+
+    public void remove(K key) {
+        cache.remove(key);
+    }
+
+    public void removeIf(BiPredicate<K, V> filter) {
+        cache.removeIf((key, entry) -> filter.test(key, entry.value()));
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private record Expiring<V>(V value, long expiresAt) {
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+}
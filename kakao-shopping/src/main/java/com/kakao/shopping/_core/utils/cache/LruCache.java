@@ -0,0 +1,71 @@
+package com.kakao.shopping._core.utils.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+/*
+최대 크기를 넘으면 가장 오래 사용되지 않은 항목부터 제거하는 메모리 캐시.
+ */
+public class LruCache<K, V> {
+    private final Map<K, V> entries;
+
+    public LruCache(int maxSize) {
+        this(maxSize, (key, value) -> {
+        });
+    }
+
+    // 크기 제한으로 제거되는 항목을 onEvict 로 전달한다. lock 을 잡은 채로 호출되므로 가볍게 처리해야 한다.
+    public LruCache(int maxSize, BiConsumer<K, V> onEvict) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                onEvict.accept(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized V putIfAbsent(K key, V value) {
+        return entries.putIfAbsent(key, value);
+    }
+
+    public synchronized boolean remove(K key, V value) {
+        return entries.remove(key, value);
+    }
+
+    public synchronized V remove(K key) {
+        return entries.remove(key);
+    }
+
+    public synchronized List<V> values() {
+        return new ArrayList<>(entries.values());
+    }
+
+    // 조건에 맞는 항목을 모두 제거한다. 명시적으로 제거한 것이므로 onEvict 는 호출하지 않는다.
+    public synchronized void removeIf(BiPredicate<K, V> filter) {
+        entries.entrySet().removeIf(entry -> filter.test(entry.getKey(), entry.getValue()));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -3,16 +3,20 @@ package com.kakao.shopping.controller;
 import com.kakao.shopping._core.security.CustomUserDetails;
 import com.kakao.shopping._core.utils.ApiUtils;
 import com.kakao.shopping.dto.cart.CartDTO;
+import com.kakao.shopping.dto.cart.CartSummaryDTO;
 import com.kakao.shopping.dto.cart.request.CartDeleteRequest;
 import com.kakao.shopping.dto.cart.request.CartInsertRequest;
 import com.kakao.shopping.dto.cart.request.CartUpdateRequest;
 import com.kakao.shopping.dto.cart.response.CartUpdateResponse;
 import com.kakao.shopping.service.CartService;
+import com.kakao.shopping.service.VersionStamps;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -21,11 +25,24 @@ import java.util.List;
 @RestController
 public class CartController {
     private final CartService cartService;
+    private final VersionStamps versionStamps;
 
+    // 장바구니가 바뀌지 않았다면 서비스를 호출하지 않고 304 로 응답한다.
     @GetMapping("/cart")
-    public ResponseEntity<?> findAll(@AuthenticationPrincipal CustomUserDetails userDetails) {
+    public ResponseEntity<?> findAll(@AuthenticationPrincipal CustomUserDetails userDetails, WebRequest webRequest) {
+        String eTag = versionStamps.ofCart(userDetails.getUserAccount().getId());
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         CartDTO carts = cartService.findAll(userDetails.getUserAccount());
-        return ResponseEntity.ok(ApiUtils.success(carts));
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(eTag).body(ApiUtils.success(carts));
+    }
+
+    @GetMapping("/cart/summary")
+    public ResponseEntity<?> findSummary(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        CartSummaryDTO summary = cartService.findSummary(userDetails.getUserAccount());
+        return ResponseEntity.ok(ApiUtils.success(summary));
     }
 
     @PostMapping("/cart")
@@ -2,9 +2,20 @@ package com.kakao.shopping.controller;
 
 import com.kakao.shopping._core.security.CustomUserDetails;
 import com.kakao.shopping._core.utils.ApiUtils;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.order.OrderCancelDTO;
 import com.kakao.shopping.dto.order.OrderDTO;
+import com.kakao.shopping.dto.order.OrderPageDTO;
+import com.kakao.shopping.dto.order.OrderSummaryPageDTO;
+import com.kakao.shopping.dto.order.QueueTicketDTO;
+import com.kakao.shopping.dto.order.ReservationDTO;
+import com.kakao.shopping.dto.order.UpdatedOrderItemDTO;
+import com.kakao.shopping.dto.order.request.OrderCancelRequest;
 import com.kakao.shopping.dto.order.request.OrderUpdateRequest;
+import com.kakao.shopping.service.CheckoutQueue;
+import com.kakao.shopping.service.OrderPlacementQueue;
 import com.kakao.shopping.service.OrderService;
+import com.kakao.shopping.service.ReservationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -17,6 +28,29 @@ import javax.validation.constraints.Min;
 @RestController
 public class OrderController {
     private final OrderService orderService;
+    private final ReservationService reservationService;
+    private final OrderPlacementQueue orderPlacementQueue;
+    private final CheckoutQueue checkoutQueue;
+
+    @GetMapping("/order")
+    public ResponseEntity<?> findAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal CustomUserDetails userDetails
+    ) {
+        OrderPageDTO orders = orderService.findAll(userDetails.getUserAccount(), cursor, size);
+        return ResponseEntity.ok().body(ApiUtils.success(orders));
+    }
+
+    @GetMapping("/order/summary")
+    public ResponseEntity<?> findAllSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal CustomUserDetails userDetails
+    ) {
+        OrderSummaryPageDTO orders = orderService.findAllSummaries(userDetails.getUserAccount(), cursor, size);
+        return ResponseEntity.ok().body(ApiUtils.success(orders));
+    }
 
     @GetMapping("/order/{id}")
     public ResponseEntity<?> findById(
@@ -29,15 +63,61 @@ public class OrderController {
 
     @PostMapping("/order")
     public ResponseEntity<?> insert(@AuthenticationPrincipal CustomUserDetails customUserDetails) {
-        OrderDTO order = orderService.save(customUserDetails.getUserAccount());
+        UserAccount userAccount = customUserDetails.getUserAccount();
+        OrderDTO order = orderPlacementQueue.isEnabled()
+                ? orderPlacementQueue.place(userAccount)
+                : orderService.save(userAccount);
         return ResponseEntity.ok().body(ApiUtils.success(order));
     }
 
+    @PostMapping("/order/{id}/cancel")
+    public ResponseEntity<?> cancel(
+            @PathVariable @Min(1) Long id,
+            @AuthenticationPrincipal CustomUserDetails userDetails
+    ) {
+        OrderCancelDTO result = orderService.cancel(id, userDetails.getUserAccount());
+        return ResponseEntity.ok().body(ApiUtils.success(result));
+    }
+
+    @PostMapping("/admin/order/cancel")
+    public ResponseEntity<?> cancelAll(@Valid @RequestBody OrderCancelRequest request) {
+        OrderCancelDTO result = orderService.cancelAll(request);
+        return ResponseEntity.ok().body(ApiUtils.success(result));
+    }
+
+    @PostMapping("/order/queue")
+    public ResponseEntity<?> enqueue(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        QueueTicketDTO ticket = checkoutQueue.issue(userDetails.getUserAccount());
+        return ResponseEntity.ok().body(ApiUtils.success(ticket));
+    }
+
+    @GetMapping("/order/queue/{token}")
+    public ResponseEntity<?> findQueueTicket(
+            @PathVariable String token,
+            @AuthenticationPrincipal CustomUserDetails userDetails
+    ) {
+        QueueTicketDTO ticket = checkoutQueue.find(token, userDetails.getUserAccount());
+        return ResponseEntity.ok().body(ApiUtils.success(ticket));
+    }
+
+    @PostMapping("/order/reservation")
+    public ResponseEntity<?> reserve(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        ReservationDTO reservation = reservationService.reserve(userDetails.getUserAccount());
+        return ResponseEntity.ok().body(ApiUtils.success(reservation));
+    }
+
+    @DeleteMapping("/order/reservation")
+    public ResponseEntity<?> cancelReservation(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        reservationService.cancel(userDetails.getUserAccount());
+        return ResponseEntity.ok().body(ApiUtils.success(null));
+    }
+
     @PutMapping("/order")
     public ResponseEntity<?> update(
             @Valid @RequestBody OrderUpdateRequest request,
             @AuthenticationPrincipal CustomUserDetails userDetails
     ) {
-        return ResponseEntity.ok().body(ApiUtils.success(null));
+        UpdatedOrderItemDTO item = orderService.update(request, userDetails.getUserAccount());
+        return ResponseEntity.ok().body(ApiUtils.success(item));
     }
 }
@@ -5,15 +5,19 @@ import com.kakao.shopping._core.utils.ApiUtils;
 import com.kakao.shopping.dto.product.ProductDTO;
 import com.kakao.shopping.dto.product.ProductListItemDTO;
 import com.kakao.shopping.dto.product.option.ProductOptionDTO;
+import com.kakao.shopping.dto.product.request.OptionStockShardRequest;
 import com.kakao.shopping.dto.product.request.OptionStockUpdateRequest;
 import com.kakao.shopping.dto.product.request.OptionUpdateRequest;
 import com.kakao.shopping.dto.product.request.ProductUpdateRequest;
 import com.kakao.shopping.service.ProductService;
+import com.kakao.shopping.service.VersionStamps;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
@@ -23,6 +27,7 @@ import java.util.List;
 @RestController
 public class ProductController {
     private final ProductService productService;
+    private final VersionStamps versionStamps;
 
     @GetMapping("/product")
     public ResponseEntity<?> findAll(@RequestParam(defaultValue = "0") int page) {
@@ -34,10 +39,16 @@ public class ProductController {
 //    @PostMapping("/product")
 //    public ResponseEntity<?> insertProduct()
 
+    // 상품, 옵션, 재고가 바뀌지 않았다면 서비스를 호출하지 않고 304 로 응답한다.
     @GetMapping("/product/{id}")
-    public ResponseEntity<?> findById(@PathVariable @Min(1) Long id) {
+    public ResponseEntity<?> findById(@PathVariable @Min(1) Long id, WebRequest webRequest) {
+        String eTag = versionStamps.ofProduct(id);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         ProductDTO product = productService.findProductById(id);
-        return ResponseEntity.ok(ApiUtils.success(product));
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(eTag).body(ApiUtils.success(product));
     }
 
     @PutMapping("/product/stock")
@@ -68,4 +79,14 @@ public class ProductController {
         ProductOptionDTO optionDTO = productService.updateOptionById(userDetails.getUserAccount(), id, request);
         return ResponseEntity.ok().body(ApiUtils.success(optionDTO));
     }
+
+    @PutMapping("/product/option/{id}/stock-shard")
+    public ResponseEntity<?> updateStockShardById(
+            @PathVariable @Min(1) Long id,
+            @Valid @RequestBody OptionStockShardRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails
+    ) {
+        ProductOptionDTO optionDTO = productService.updateStockShardById(userDetails.getUserAccount(), id, request);
+        return ResponseEntity.ok().body(ApiUtils.success(optionDTO));
+    }
 }
@@ -1,9 +1,12 @@
 package com.kakao.shopping.domain;
 
+import com.kakao.shopping._core.id.ShoppingIdGenerator;
 import lombok.Builder;
 import lombok.Getter;
+import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Getter
@@ -29,16 +32,29 @@ import java.util.Objects;
                 }
         )
 })
+@Table(
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_cart_user_account_product_option",
+                columnNames = {"user_account_id", "product_option_id"}
+        ),
+        indexes = {
+                @Index(name = "idx_cart_product_option_id", columnList = "product_option_id, id"),
+                @Index(name = "idx_cart_modified_at", columnList = "modified_at, id")
+        }
+)
 @Entity
 public class Cart {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = ShoppingIdGenerator.NAME)
+    @GenericGenerator(name = ShoppingIdGenerator.NAME, strategy = ShoppingIdGenerator.STRATEGY)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_account_id")
     private UserAccount userAccount;
 
-    @OneToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_option_id")
     private ProductOption productOption;
 
     @Column(nullable = false)
@@ -47,6 +63,9 @@ public class Cart {
     @Column(nullable = false)
     private Long price;
 
+    @Column(name = "modified_at", nullable = false)
+    private LocalDateTime modifiedAt;
+
     protected Cart() {
     }
 
@@ -57,6 +76,7 @@ public class Cart {
         this.productOption = productOption;
         this.quantity = quantity;
         this.price = productOption.getPrice() * quantity;
+        this.modifiedAt = LocalDateTime.now();
     }
 
     @Override
@@ -74,5 +94,6 @@ public class Cart {
     public void updateQuantity(Long quantity) {
         this.quantity = quantity;
         this.price = quantity * this.productOption.getPrice();
+        this.modifiedAt = LocalDateTime.now();
     }
 }
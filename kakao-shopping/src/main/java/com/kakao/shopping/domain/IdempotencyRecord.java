@@ -0,0 +1,77 @@
+package com.kakao.shopping.domain;
+
+import lombok.Getter;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/*
+Idempotency-Key 로 처리한 요청의 응답을 보관한다.
+id 를 직접 지정하므로 save 시 select 가 발생하지 않도록 Persistable 로 신규 여부를 알려준다.
+ */
+@Getter
+@Table(indexes = @Index(name = "idx_idempotency_record_created_at", columnList = "created_at"))
+@Entity
+public class IdempotencyRecord implements Persistable<String> {
+    @Id
+    @Column(length = 300)
+    private String id;
+
+    @Column(nullable = false)
+    private Integer status;
+
+    private String contentType;
+
+    @Lob
+    private byte[] body;
+
+    @Column(length = 44)
+    private String requestHash;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected IdempotencyRecord() {
+    }
+
+    private IdempotencyRecord(String id, Integer status, String contentType, byte[] body, String requestHash) {
+        this.id = id;
+        this.status = status;
+        this.contentType = contentType;
+        this.body = body;
+        this.requestHash = requestHash;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public static IdempotencyRecord of(String id, Integer status, String contentType, byte[] body, String requestHash) {
+        return new IdempotencyRecord(id, status, contentType, body, requestHash);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IdempotencyRecord that)) return false;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
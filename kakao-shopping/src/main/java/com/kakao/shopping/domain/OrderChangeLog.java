@@ -0,0 +1,79 @@
+package com.kakao.shopping.domain;
+
+import com.kakao.shopping._core.id.ShoppingIdGenerator;
+import lombok.Getter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/*
+주문 수량 변경 이력. 추가만 하고 수정/삭제하지 않는다.
+주문이 보관(archive)되어도 이력이 남도록 연관관계 대신 id 만 저장한다.
+ */
+@Getter
+@Immutable
+@Table(indexes = @Index(name = "idx_order_change_log_order", columnList = "order_detail_id"))
+@Entity
+public class OrderChangeLog {
+    @Id
+    @GeneratedValue(generator = ShoppingIdGenerator.NAME)
+    @GenericGenerator(name = ShoppingIdGenerator.NAME, strategy = ShoppingIdGenerator.STRATEGY)
+    private Long id;
+
+    @Column(name = "order_detail_id", nullable = false)
+    private Long orderDetailId;
+
+    @Column(nullable = false)
+    private Long orderItemId;
+
+    @Column(nullable = false)
+    private Long productOptionId;
+
+    @Column(nullable = false)
+    private Long previousQuantity;
+
+    @Column(nullable = false)
+    private Long quantity;
+
+    @Column(nullable = false)
+    private String reason;
+
+    @Column(nullable = false)
+    private Long changedBy;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    protected OrderChangeLog() {
+    }
+
+    private OrderChangeLog(OrderItem item, Long previousQuantity, String reason, UserAccount userAccount) {
+        this.orderDetailId = item.getOrderDetail().getId();
+        this.orderItemId = item.getId();
+        this.productOptionId = item.getProductOption().getId();
+        this.previousQuantity = previousQuantity;
+        this.quantity = item.getQuantity();
+        this.reason = reason;
+        this.changedBy = userAccount.getId();
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public static OrderChangeLog of(OrderItem item, Long previousQuantity, String reason, UserAccount userAccount) {
+        return new OrderChangeLog(item, previousQuantity, reason, userAccount);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof OrderChangeLog that)) return false;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
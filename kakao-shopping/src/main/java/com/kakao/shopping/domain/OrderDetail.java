@@ -1,33 +1,86 @@
 package com.kakao.shopping.domain;
 
+import com.kakao.shopping._core.id.ShoppingIdGenerator;
+import com.kakao.shopping._core.utils.calculator.OrderPriceCalculator;
 import lombok.Getter;
+import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.annotation.CreatedDate;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Getter
+@Table(indexes = {
+        @Index(name = "idx_order_detail_user_created_id", columnList = "user_account_id, created_at, id"),
+        @Index(name = "idx_order_detail_created_at", columnList = "created_at")
+})
 @Entity
 public class OrderDetail {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = ShoppingIdGenerator.NAME)
+    @GenericGenerator(name = ShoppingIdGenerator.NAME, strategy = ShoppingIdGenerator.STRATEGY)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_account_id")
     private UserAccount userAccount;
 
     @CreatedDate
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    // 주문 목록/요약 조회에서 주문 상품을 읽지 않도록 주문 시점에 계산해 둔다.
+    @Column(nullable = false)
+    private Long totalPrice;
+
+    // 주문한 전체 수량
+    @Column(nullable = false)
+    private Long itemCount;
+
+    @Column(nullable = false)
+    private Integer distinctProductCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    private LocalDateTime cancelledAt;
+
     protected OrderDetail() {
     }
 
     private OrderDetail(UserAccount userAccount) {
         this.userAccount = userAccount;
+        this.status = OrderStatus.PLACED;
         this.createdAt = LocalDateTime.now();
     }
 
     public static OrderDetail of(UserAccount userAccount) {
         return new OrderDetail(userAccount);
     }
+
+    public OrderDetail summarize(List<OrderItem> items) {
+        this.totalPrice = new OrderPriceCalculator(items).execute();
+        this.itemCount = items.stream().mapToLong(OrderItem::getQuantity).sum();
+        this.distinctProductCount = (int) items.stream().map(OrderItem::getProductId).distinct().count();
+        return this;
+    }
+
+    public boolean isCancelled() {
+        return status == OrderStatus.CANCELLED;
+    }
+
+    public OrderDetail cancel() {
+        this.status = OrderStatus.CANCELLED;
+        this.cancelledAt = LocalDateTime.now();
+        return this;
+    }
+
+    // 주문 상품 하나의 수량/금액이 바뀐 만큼 요약 값을 갱신한다.
+    public OrderDetail applyItemChange(Long quantityDelta, Long priceDelta) {
+        this.itemCount += quantityDelta;
+        this.totalPrice += priceDelta;
+        return this;
+    }
 }
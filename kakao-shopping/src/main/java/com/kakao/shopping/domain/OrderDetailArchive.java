@@ -0,0 +1,61 @@
+package com.kakao.shopping.domain;
+
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/*
+보관 기간이 지난 주문. OrderArchiver 가 order_detail 에서 insert ... select 로 옮겨오며 이후 변경되지 않는다.
+id 는 운영 테이블의 id 를 그대로 사용한다.
+ */
+@Getter
+@Immutable
+@Table(indexes = @Index(name = "idx_order_detail_archive_user_created_id", columnList = "user_account_id, created_at, id"))
+@Entity
+public class OrderDetailArchive {
+    @Id
+    private Long id;
+
+    @Column(name = "user_account_id", nullable = false)
+    private Long userAccountId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "total_price", nullable = false)
+    private Long totalPrice;
+
+    @Column(name = "item_count", nullable = false)
+    private Long itemCount;
+
+    @Column(name = "distinct_product_count", nullable = false)
+    private Integer distinctProductCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(name = "cancelled_at")
+    private LocalDateTime cancelledAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    protected OrderDetailArchive() {
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof OrderDetailArchive that)) return false;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
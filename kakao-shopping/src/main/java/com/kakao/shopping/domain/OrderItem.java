@@ -1,6 +1,8 @@
 package com.kakao.shopping.domain;
 
+import com.kakao.shopping._core.id.ShoppingIdGenerator;
 import lombok.Getter;
+import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
@@ -10,20 +12,35 @@ import java.util.Objects;
 
 @Getter
 @Entity
-public class OrderItem {
+public class OrderItem implements OrderLine {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = ShoppingIdGenerator.NAME)
+    @GenericGenerator(name = ShoppingIdGenerator.NAME, strategy = ShoppingIdGenerator.STRATEGY)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     private OrderDetail orderDetail;
 
-    @OneToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY)
     private ProductOption productOption;
 
+    // 주문 당시의 상품/옵션 정보. 이후 상품이 수정되어도 주문 내역은 그대로 보여준다.
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false, length = 100)
+    private String productName;
+
+    @Column(nullable = false)
+    private String optionName;
+
     @Column(nullable = false)
     private Long quantity;
 
+    // 주문 당시의 옵션 가격. 수량을 바꿀 때 price 를 다시 계산하는 기준이 된다.
+    @Column(nullable = false)
+    private Long unitPrice;
+
     @Column(nullable = false)
     private Long price;
 
@@ -36,16 +53,20 @@ public class OrderItem {
     protected OrderItem() {
     }
 
-    private OrderItem(OrderDetail orderDetail, ProductOption productOption, Long quantity, Long price) {
+    private OrderItem(OrderDetail orderDetail, ProductOption productOption, Long quantity, Long unitPrice) {
         this.orderDetail = orderDetail;
         this.productOption = productOption;
+        this.productId = productOption.getProduct().getId();
+        this.productName = productOption.getProduct().getName();
+        this.optionName = productOption.getName();
         this.quantity = quantity;
-        this.price = price;
+        this.unitPrice = unitPrice;
+        this.price = unitPrice * quantity;
         this.createdAt = LocalDateTime.now();
     }
 
-    public static OrderItem of(OrderDetail orderDetail, ProductOption productOption, Long quantity, Long price) {
-        return new OrderItem(orderDetail, productOption, quantity, price);
+    public static OrderItem of(OrderDetail orderDetail, ProductOption productOption, Long quantity, Long unitPrice) {
+        return new OrderItem(orderDetail, productOption, quantity, unitPrice);
     }
 
     @Override
@@ -60,9 +81,10 @@ public class OrderItem {
         return Objects.hash(id);
     }
 
+    // 수량만 바꾸고 단가는 옵션의 현재 가격이 아닌 주문 당시의 가격(unitPrice)을 유지한다.
     public void update(Long quantity) {
         this.quantity = quantity;
-        this.price = quantity * this.productOption.getPrice();
+        this.price = unitPrice * quantity;
         this.modifiedAt = LocalDateTime.now();
     }
 }
@@ -0,0 +1,66 @@
+package com.kakao.shopping.domain;
+
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// 보관 기간이 지난 주문 상품. 상품이 삭제되어도 남을 수 있도록 연관관계 대신 id 만 저장한다.
+@Getter
+@Immutable
+@Table(indexes = @Index(name = "idx_order_item_archive_order_detail_id", columnList = "order_detail_id"))
+@Entity
+public class OrderItemArchive implements OrderLine {
+    @Id
+    private Long id;
+
+    @Column(name = "order_detail_id", nullable = false)
+    private Long orderDetailId;
+
+    @Column(name = "user_account_id", nullable = false)
+    private Long userAccountId;
+
+    @Column(name = "product_option_id")
+    private Long productOptionId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "product_name", nullable = false, length = 100)
+    private String productName;
+
+    @Column(name = "option_name", nullable = false)
+    private String optionName;
+
+    @Column(name = "quantity", nullable = false)
+    private Long quantity;
+
+    @Column(name = "unit_price", nullable = false)
+    private Long unitPrice;
+
+    @Column(name = "price", nullable = false)
+    private Long price;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "modified_at")
+    private LocalDateTime modifiedAt;
+
+    protected OrderItemArchive() {
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof OrderItemArchive that)) return false;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
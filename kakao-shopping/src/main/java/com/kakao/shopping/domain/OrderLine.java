@@ -0,0 +1,14 @@
+package com.kakao.shopping.domain;
+
+// 주문 상세 화면에 필요한 주문 상품 정보. 운영 테이블(OrderItem)과 보관 테이블(OrderItemArchive)이 함께 구현한다.
+public interface OrderLine {
+    Long getProductId();
+
+    String getProductName();
+
+    String getOptionName();
+
+    Long getQuantity();
+
+    Long getPrice();
+}
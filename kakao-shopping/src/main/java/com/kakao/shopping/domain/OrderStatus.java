@@ -0,0 +1,6 @@
+package com.kakao.shopping.domain;
+
+public enum OrderStatus {
+    PLACED,
+    CANCELLED
+}
@@ -0,0 +1,53 @@
+package com.kakao.shopping.domain;
+
+import com.kakao.shopping._core.id.ShoppingIdGenerator;
+import lombok.Getter;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Getter
+@Entity
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(generator = ShoppingIdGenerator.NAME)
+    @GenericGenerator(name = ShoppingIdGenerator.NAME, strategy = ShoppingIdGenerator.STRATEGY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    protected OutboxEvent() {
+    }
+
+    private OutboxEvent(String type, String payload) {
+        this.type = type;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public static OutboxEvent of(String type, String payload) {
+        return new OutboxEvent(type, payload);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof OutboxEvent that)) return false;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
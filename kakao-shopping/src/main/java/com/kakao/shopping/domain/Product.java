@@ -1,7 +1,9 @@
 package com.kakao.shopping.domain;
 
+import com.kakao.shopping._core.id.ShoppingIdGenerator;
 import com.kakao.shopping.dto.product.request.ProductInsertRequest;
 import lombok.Getter;
+import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -19,7 +21,8 @@ import java.util.Objects;
 @Entity
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = ShoppingIdGenerator.NAME)
+    @GenericGenerator(name = ShoppingIdGenerator.NAME, strategy = ShoppingIdGenerator.STRATEGY)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -1,8 +1,10 @@
 package com.kakao.shopping.domain;
 
+import com.kakao.shopping._core.id.ShoppingIdGenerator;
 import com.kakao.shopping.dto.product.option.request.OptionInsertRequest;
 import lombok.Builder;
 import lombok.Getter;
+import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -25,7 +27,8 @@ import java.util.Objects;
 @Entity
 public class ProductOption {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = ShoppingIdGenerator.NAME)
+    @GenericGenerator(name = ShoppingIdGenerator.NAME, strategy = ShoppingIdGenerator.STRATEGY)
     private Long id;
 
     @ManyToOne
@@ -40,6 +43,10 @@ public class ProductOption {
     @Column(nullable = false)
     private Long stock;
 
+    // 1 보다 크면 재고를 ProductOptionStock 으로 나누어 관리하며, 이때 stock 컬럼은 0 으로 둔다.
+    @Column(nullable = false)
+    private Integer stockShardCount;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -61,6 +68,7 @@ public class ProductOption {
         this.name = name;
         this.price = price;
         this.stock = stock;
+        this.stockShardCount = 1;
         this.createdAt = LocalDateTime.now();
         this.createdBy = userAccount;
     }
@@ -70,6 +78,7 @@ public class ProductOption {
         this.name = name;
         this.price = price;
         this.stock = 10L;
+        this.stockShardCount = 1;
         this.createdAt = LocalDateTime.now();
         this.createdBy = userAccount;
     }
@@ -121,4 +130,15 @@ public class ProductOption {
         this.modifiedBy = userAccount;
         return this;
     }
+
+    public ProductOption updateStockShardCount(UserAccount userAccount, Integer stockShardCount) {
+        this.stockShardCount = stockShardCount;
+        this.modifiedAt = LocalDateTime.now();
+        this.modifiedBy = userAccount;
+        return this;
+    }
+
+    public boolean isStockSharded() {
+        return stockShardCount > 1;
+    }
 }
@@ -0,0 +1,60 @@
+package com.kakao.shopping.domain;
+
+import com.kakao.shopping._core.id.ShoppingIdGenerator;
+import lombok.Getter;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.util.Objects;
+
+/*
+재고를 여러 row 로 나누어 관리하는 옵션의 재고 조각.
+shard 번호는 0 부터 ProductOption.stockShardCount - 1 까지 사용한다.
+ */
+@Getter
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = "uk_product_option_stock_option_shard",
+        columnNames = {"product_option_id", "shard"}
+))
+@Entity
+public class ProductOptionStock {
+    @Id
+    @GeneratedValue(generator = ShoppingIdGenerator.NAME)
+    @GenericGenerator(name = ShoppingIdGenerator.NAME, strategy = ShoppingIdGenerator.STRATEGY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_option_id", nullable = false)
+    private ProductOption productOption;
+
+    @Column(name = "shard", nullable = false)
+    private Integer shard;
+
+    @Column(nullable = false)
+    private Long stock;
+
+    protected ProductOptionStock() {
+    }
+
+    private ProductOptionStock(ProductOption productOption, Integer shard, Long stock) {
+        this.productOption = productOption;
+        this.shard = shard;
+        this.stock = stock;
+    }
+
+    public static ProductOptionStock of(ProductOption productOption, Integer shard, Long stock) {
+        return new ProductOptionStock(productOption, shard, stock);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ProductOptionStock that)) return false;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,65 @@
+package com.kakao.shopping.domain;
+
+import com.kakao.shopping._core.id.ShoppingIdGenerator;
+import lombok.Getter;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Getter
+@Table(indexes = {
+        @Index(name = "idx_stock_reservation_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_stock_reservation_user_account_id", columnList = "user_account_id")
+})
+@Entity
+public class StockReservation {
+    @Id
+    @GeneratedValue(generator = ShoppingIdGenerator.NAME)
+    @GenericGenerator(name = ShoppingIdGenerator.NAME, strategy = ShoppingIdGenerator.STRATEGY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_account_id")
+    private UserAccount userAccount;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private ProductOption productOption;
+
+    @Column(nullable = false)
+    private Long quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    protected StockReservation() {
+    }
+
+    private StockReservation(UserAccount userAccount, ProductOption productOption, Long quantity, LocalDateTime expiresAt) {
+        this.userAccount = userAccount;
+        this.productOption = productOption;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public static StockReservation of(UserAccount userAccount, ProductOption productOption, Long quantity, LocalDateTime expiresAt) {
+        return new StockReservation(userAccount, productOption, quantity, expiresAt);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StockReservation that)) return false;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
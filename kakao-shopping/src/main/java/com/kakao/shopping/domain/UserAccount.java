@@ -1,7 +1,9 @@
 package com.kakao.shopping.domain;
 
+import com.kakao.shopping._core.id.ShoppingIdGenerator;
 import lombok.Builder;
 import lombok.Getter;
+import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -9,13 +11,15 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import javax.persistence.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Objects;
 
 @Getter
 @Entity
 public class UserAccount {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = ShoppingIdGenerator.NAME)
+    @GenericGenerator(name = ShoppingIdGenerator.NAME, strategy = ShoppingIdGenerator.STRATEGY)
     private Long id;
 
     @Column(nullable = false, length = 45)
@@ -85,6 +89,10 @@ public class UserAccount {
         this.modifiedAt = LocalDateTime.now();
     }
 
+    public boolean isAdmin() {
+        return Arrays.asList(roles.split(",")).contains("ROLE_ADMIN");
+    }
+
     public void updateRoles(String roles) {
         this.roles = roles;
         this.modifiedAt = LocalDateTime.now();
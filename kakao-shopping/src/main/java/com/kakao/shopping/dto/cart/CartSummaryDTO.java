@@ -0,0 +1,8 @@
+package com.kakao.shopping.dto.cart;
+
+public record CartSummaryDTO(
+        Long lineCount,
+        Long totalQuantity,
+        Long totalPrice
+) {
+}
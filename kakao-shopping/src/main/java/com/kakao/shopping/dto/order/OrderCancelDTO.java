@@ -0,0 +1,6 @@
+package com.kakao.shopping.dto.order;
+
+public record OrderCancelDTO(
+        int cancelledCount
+) {
+}
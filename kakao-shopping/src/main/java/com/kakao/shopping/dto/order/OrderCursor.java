@@ -0,0 +1,30 @@
+package com.kakao.shopping.dto.order;
+
+import com.kakao.shopping._core.errors.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// 주문 내역 keyset pagination 에서 마지막으로 조회한 주문의 (createdAt, id)
+public record OrderCursor(
+        LocalDateTime createdAt,
+        Long id
+) {
+    public String encode() {
+        String raw = createdAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] values = raw.split(",");
+            return new OrderCursor(LocalDateTime.parse(values[0]), Long.parseLong(values[1]));
+        }
+        catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException exception) {
+            throw new BadRequestException("잘못된 cursor 입니다.");
+        }
+    }
+}
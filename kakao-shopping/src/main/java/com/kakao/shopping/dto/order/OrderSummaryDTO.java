@@ -0,0 +1,15 @@
+package com.kakao.shopping.dto.order;
+
+import com.kakao.shopping.domain.OrderStatus;
+
+import java.time.LocalDateTime;
+
+public record OrderSummaryDTO(
+        Long id,
+        LocalDateTime createdAt,
+        Long totalPrice,
+        Long itemCount,
+        Integer distinctProductCount,
+        OrderStatus status
+) {
+}
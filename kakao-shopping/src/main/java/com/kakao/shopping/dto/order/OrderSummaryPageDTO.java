@@ -0,0 +1,9 @@
+package com.kakao.shopping.dto.order;
+
+import java.util.List;
+
+public record OrderSummaryPageDTO(
+        List<OrderSummaryDTO> orders,
+        String nextCursor
+) {
+}
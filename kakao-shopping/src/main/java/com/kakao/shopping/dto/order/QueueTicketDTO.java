@@ -0,0 +1,13 @@
+package com.kakao.shopping.dto.order;
+
+public record QueueTicketDTO(
+        String token,
+        Status status,
+        long position,
+        long retryAfter
+) {
+    public enum Status {
+        WAITING,
+        ADMITTED
+    }
+}
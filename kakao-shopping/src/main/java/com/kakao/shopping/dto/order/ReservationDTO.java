@@ -0,0 +1,10 @@
+package com.kakao.shopping.dto.order;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ReservationDTO(
+        List<ReservationItemDTO> items,
+        LocalDateTime expiresAt
+) {
+}
@@ -0,0 +1,8 @@
+package com.kakao.shopping.dto.order;
+
+public record ReservationItemDTO(
+        Long optionId,
+        String optionName,
+        Long quantity
+) {
+}
@@ -0,0 +1,11 @@
+package com.kakao.shopping.dto.order;
+
+public record UpdatedOrderItemDTO(
+        Long orderId,
+        Long productOptionId,
+        String productOptionName,
+        Long quantity,
+        Long price,
+        Long totalPrice
+) {
+}
@@ -0,0 +1,18 @@
+package com.kakao.shopping.dto.order.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record OrderPlacedEvent(
+        Long orderId,
+        Long userId,
+        List<Item> items,
+        LocalDateTime createdAt
+) {
+    public record Item(
+            Long optionId,
+            Long quantity,
+            Long price
+    ) {
+    }
+}
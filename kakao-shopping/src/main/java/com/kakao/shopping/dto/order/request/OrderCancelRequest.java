@@ -0,0 +1,11 @@
+package com.kakao.shopping.dto.order.request;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+public record OrderCancelRequest(
+        @NotEmpty(message = "취소할 주문을 선택해주세요.")
+        @Size(max = 10000, message = "한 번에 10000개까지 취소할 수 있습니다.") List<Long> orderIds
+) {
+}
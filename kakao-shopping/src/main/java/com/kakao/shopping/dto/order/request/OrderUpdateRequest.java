@@ -1,11 +1,18 @@
 package com.kakao.shopping.dto.order.request;
 
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 
 public record OrderUpdateRequest(
+        @NotNull(message = "주문 id를 입력해주세요.")
         @Min(value = 1, message = "id는 1 이상의 숫자만 가능합니다.") Long orderId,
+        @NotNull(message = "옵션 id를 입력해주세요.")
         @Min(value = 1, message = "id는 1 이상의 숫자만 가능합니다.") Long optionId,
+        @NotNull(message = "수량을 입력해주세요.")
         @Min(value = 1, message = "수량은 1 이상의 숫자만 가능합니다.") Long quantity,
-        String reason
+        @NotBlank(message = "변경 사유를 입력해주세요.")
+        @Size(max = 255, message = "변경 사유는 255자 이하로 입력해주세요.") String reason
 ) {
 }
@@ -0,0 +1,12 @@
+package com.kakao.shopping.dto.product.request;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+public record OptionStockShardRequest(
+        @NotNull(message = "재고 분할 수를 입력해주세요.")
+        @Min(value = 1, message = "재고 분할 수는 1 이상의 숫자만 가능합니다.")
+        @Max(value = 64, message = "재고 분할 수는 64 이하의 숫자만 가능합니다.") Integer shardCount
+) {
+}
@@ -1,11 +1,16 @@
 package com.kakao.shopping.repository;
 
 import com.kakao.shopping.domain.Cart;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +18,63 @@ import java.util.Optional;
 public interface CartRepository extends JpaRepository<Cart, Long> {
     @EntityGraph("CartWithUserAccountAndOptionAndProduct")
     Optional<List<Cart>> findAllByUserAccountId(Long userId);
+
+    @Query("select min(c.productOption.id) from Cart c where c.userAccount.id = :userId")
+    Optional<Long> findFirstOptionIdByUserAccountId(@Param("userId") Long userId);
+
+    /*
+    (user_account_id, product_option_id) unique 제약을 이용해 장바구니를 읽지 않고 한 번에 추가하거나 수량을 늘린다.
+    price 를 먼저 기존 quantity 기준으로 계산하므로 MySQL 과 H2(MySQL mode) 모두 같은 결과가 된다.
+     */
+    @Modifying
+    @Query(value = "insert into cart (id, user_account_id, product_option_id, quantity, price, modified_at) " +
+            "values (:id, :userId, :optionId, :quantity, :quantity * :unitPrice, :now) " +
+            "on duplicate key update price = (quantity + :quantity) * :unitPrice, quantity = quantity + :quantity, modified_at = :now",
+            nativeQuery = true)
+    int upsert(
+            @Param("id") Long id,
+            @Param("userId") Long userId,
+            @Param("optionId") Long optionId,
+            @Param("quantity") Long quantity,
+            @Param("unitPrice") Long unitPrice,
+            @Param("now") LocalDateTime now
+    );
+
+    @Query("select count(c) as lineCount, coalesce(sum(c.quantity), 0) as totalQuantity, coalesce(sum(c.price), 0) as totalPrice " +
+            "from Cart c where c.userAccount.id = :userId")
+    CartSummary summarizeByUserAccountId(@Param("userId") Long userId);
+
+    @Query("select distinct c.userAccount.id from Cart c where c.id in :ids")
+    List<Long> findUserAccountIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select distinct c.userAccount.id from Cart c where c.productOption.id in :optionIds")
+    List<Long> findUserAccountIdsByProductOptionIdIn(@Param("optionIds") Collection<Long> optionIds);
+
+    // product_option_id 인덱스를 따라 옵션을 담은 장바구니 id 를 id 순서로 잘라서 읽는다.
+    @Query("select c.id from Cart c where c.productOption.id = :optionId and c.id > :after order by c.id")
+    List<Long> findIdsByProductOptionIdAfter(@Param("optionId") Long optionId, @Param("after") Long after, Pageable pageable);
+
+    @Modifying
+    @Query("update Cart c set c.price = c.quantity * :price where c.id in :ids")
+    int updatePriceByIdIn(@Param("ids") Collection<Long> ids, @Param("price") Long price);
+
+    // 소유자를 조건에 함께 걸어 한 번의 DELETE 로 삭제하고, 삭제된 row 수를 반환한다.
+    @Modifying
+    @Query("delete from Cart c where c.id in :ids and c.userAccount.id = :userId")
+    int deleteAllByIdInAndUserAccountId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    // modified_at 인덱스를 따라 오래전에 마지막으로 변경된 장바구니 id 를 오래된 순서로 읽는다.
+    @Query("select c.id from Cart c where c.modifiedAt < :before order by c.modifiedAt, c.id")
+    List<Long> findIdsModifiedBefore(@Param("before") LocalDateTime before, Pageable pageable);
+
+    // id 를 읽은 뒤 사용자가 다시 변경한 장바구니는 삭제하지 않도록 modifiedAt 을 다시 확인한다.
+    @Modifying
+    @Query("delete from Cart c where c.id in :ids and c.modifiedAt < :before")
+    int deleteAllByIdInAndModifiedAtBefore(@Param("ids") Collection<Long> ids, @Param("before") LocalDateTime before);
+
+    interface CartSummary {
+        Long getLineCount();
+        Long getTotalQuantity();
+        Long getTotalPrice();
+    }
 }
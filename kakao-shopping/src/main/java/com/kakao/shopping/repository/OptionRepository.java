@@ -1,10 +1,18 @@
 package com.kakao.shopping.repository;
 
 import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,4 +26,56 @@ public interface OptionRepository extends JpaRepository<ProductOption, Long> {
 
     @EntityGraph("OptionWithProductAndCreatedBy")
     Optional<ProductOption> findById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from ProductOption o where o.id = :id")
+    Optional<ProductOption> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("select o.price from ProductOption o where o.id = :id")
+    Optional<Long> findPriceById(@Param("id") Long id);
+
+    /*
+    옵션 정보만 바뀐 컬럼으로 갱신한다. 엔티티를 저장하면 읽어 둔 stock 까지 다시 쓰게 되어
+    그 사이에 commit 된 조건부 재고 차감을 덮어쓰므로 사용하지 않는다.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update ProductOption o set o.name = :name, o.price = :price, o.modifiedAt = :modifiedAt, o.modifiedBy = :modifiedBy " +
+            "where o.id = :id")
+    int updateNameAndPrice(
+            @Param("id") Long id,
+            @Param("name") String name,
+            @Param("price") Long price,
+            @Param("modifiedAt") LocalDateTime modifiedAt,
+            @Param("modifiedBy") UserAccount modifiedBy
+    );
+
+    /*
+    stock 컬럼은 shard 로 나뉘지 않은 옵션만 사용하므로, 그 사이에 shard 로 나뉜 옵션이라면 0 을 반환한다.
+    재고가 충분할 때만 차감하며, 영향받은 row 수(0 또는 1)를 반환한다.
+     */
+    @Transactional
+    @Modifying
+    @Query("update ProductOption o set o.stock = o.stock - :quantity " +
+            "where o.id = :id and o.stockShardCount = 1 and o.stock >= :quantity")
+    int decreaseStock(@Param("id") Long id, @Param("quantity") Long quantity);
+
+    @Transactional
+    @Modifying
+    @Query("update ProductOption o set o.stock = o.stock + :quantity where o.id = :id and o.stockShardCount = 1")
+    int increaseStock(@Param("id") Long id, @Param("quantity") Long quantity);
+
+    // 재고를 새로 지정할 때도 엔티티를 저장하지 않고 stock 만 갱신하여 shard 수나 이름, 가격을 덮어쓰지 않는다.
+    @Transactional
+    @Modifying
+    @Query("update ProductOption o set o.stock = :stock, o.modifiedAt = :modifiedAt, o.modifiedBy = :modifiedBy where o.id = :id")
+    int updateStock(
+            @Param("id") Long id,
+            @Param("stock") Long stock,
+            @Param("modifiedAt") LocalDateTime modifiedAt,
+            @Param("modifiedBy") UserAccount modifiedBy
+    );
+
+    @Query(value = "select stock_shard_count from product_option where id = :id for update", nativeQuery = true)
+    Optional<Integer> findStockShardCountForUpdate(@Param("id") Long id);
 }
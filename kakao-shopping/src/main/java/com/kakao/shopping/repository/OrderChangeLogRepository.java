@@ -0,0 +1,9 @@
+package com.kakao.shopping.repository;
+
+import com.kakao.shopping.domain.OrderChangeLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderChangeLogRepository extends JpaRepository<OrderChangeLog, Long> {
+}
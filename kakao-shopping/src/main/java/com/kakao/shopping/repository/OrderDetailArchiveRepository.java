@@ -0,0 +1,24 @@
+package com.kakao.shopping.repository;
+
+import com.kakao.shopping.domain.OrderDetailArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface OrderDetailArchiveRepository extends JpaRepository<OrderDetailArchive, Long> {
+    Optional<OrderDetailArchive> findByIdAndUserAccountId(Long id, Long userAccountId);
+
+    @Modifying
+    @Query(value = "insert into order_detail_archive " +
+            "(id, user_account_id, created_at, total_price, item_count, distinct_product_count, status, cancelled_at, archived_at) " +
+            "select id, user_account_id, created_at, total_price, item_count, distinct_product_count, status, cancelled_at, :archivedAt " +
+            "from order_detail where id in :ids", nativeQuery = true)
+    int copyFromOrderDetail(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
@@ -1,9 +1,45 @@
 package com.kakao.shopping.repository;
 
 import com.kakao.shopping.domain.OrderDetail;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface OrderDetailRepository extends JpaRepository<OrderDetail, Long> {
+    @Query("select o from OrderDetail o where o.userAccount.id = :userId order by o.createdAt desc, o.id desc")
+    List<OrderDetail> findFirstPageByUserAccountId(@Param("userId") Long userId, Pageable pageable);
+
+    // (created_at, id) 가 cursor 보다 앞선 주문을 (user_account_id, created_at, id) 인덱스를 따라 읽는다.
+    @Query("select o from OrderDetail o where o.userAccount.id = :userId " +
+            "and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id)) " +
+            "order by o.createdAt desc, o.id desc")
+    List<OrderDetail> findPageByUserAccountIdAfter(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    // 취소와 수량 변경이 같은 주문을 동시에 처리하지 않도록 아직 취소되지 않은 주문에 lock 을 잡고 읽는다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from OrderDetail o where o.id in :ids and o.status = com.kakao.shopping.domain.OrderStatus.PLACED order by o.id")
+    List<OrderDetail> findAllPlacedByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    // created_at 인덱스를 따라 보관 대상 주문을 오래된 순서로 잘라서 읽는다.
+    @Query("select o.id from OrderDetail o where o.createdAt < :before order by o.createdAt, o.id")
+    List<Long> findIdsCreatedBefore(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Modifying
+    @Query("delete from OrderDetail o where o.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,24 @@
+package com.kakao.shopping.repository;
+
+import com.kakao.shopping.domain.OrderItemArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderItemArchiveRepository extends JpaRepository<OrderItemArchive, Long> {
+    List<OrderItemArchive> findAllByOrderDetailId(Long orderDetailId);
+
+    @Modifying
+    @Query(value = "insert into order_item_archive " +
+            "(id, order_detail_id, user_account_id, product_option_id, product_id, product_name, option_name, quantity, unit_price, price, created_at, modified_at) " +
+            "select i.id, i.order_detail_id, o.user_account_id, i.product_option_id, i.product_id, i.product_name, i.option_name, " +
+            "i.quantity, i.unit_price, i.price, i.created_at, i.modified_at " +
+            "from order_item i join order_detail o on o.id = i.order_detail_id where i.order_detail_id in :ids", nativeQuery = true)
+    int copyFromOrderItem(@Param("ids") Collection<Long> ids);
+}
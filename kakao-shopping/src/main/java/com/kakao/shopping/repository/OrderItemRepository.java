@@ -1,13 +1,42 @@
 package com.kakao.shopping.repository;
 
-import com.kakao.shopping.domain.OrderDetail;
 import com.kakao.shopping.domain.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-    List<OrderItem> findAllByOrderDetail(OrderDetail orderDetail);
+    // 주문 id 와 소유자를 함께 조건으로 걸어, 남의 주문이나 없는 주문은 한 번의 쿼리로 빈 결과가 된다.
+    @Query("select i from OrderItem i join fetch i.orderDetail o where o.id = :orderId and o.userAccount.id = :userId")
+    List<OrderItem> findAllByOrderIdAndUserId(@Param("orderId") Long orderId, @Param("userId") Long userId);
+
+    List<OrderItem> findAllByOrderDetailIdIn(Collection<Long> orderIds);
+
+    // 주문 상품과 주문 row 에 lock 을 잡아 같은 주문에 대한 수량 변경이 순서대로 반영되도록 한다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from OrderItem i join fetch i.orderDetail o where o.id = :orderId and i.productOption.id = :optionId")
+    Optional<OrderItem> findByOrderIdAndOptionIdForUpdate(@Param("orderId") Long orderId, @Param("optionId") Long optionId);
+
+    // 여러 주문의 수량을 옵션별로 합산한다.
+    @Query("select i.productOption.id as optionId, sum(i.quantity) as quantity from OrderItem i " +
+            "where i.orderDetail.id in :orderIds group by i.productOption.id")
+    List<OptionQuantity> sumQuantityByOrderDetailIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query("delete from OrderItem i where i.orderDetail.id in :orderIds")
+    int deleteAllByOrderDetailIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    interface OptionQuantity {
+        Long getOptionId();
+        Long getQuantity();
+    }
 }
@@ -0,0 +1,55 @@
+package com.kakao.shopping.repository;
+
+import com.kakao.shopping.domain.ProductOptionStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductOptionStockRepository extends JpaRepository<ProductOptionStock, Long> {
+    @Transactional
+    @Modifying
+    @Query("update ProductOptionStock s set s.stock = s.stock - :quantity " +
+            "where s.productOption.id = :optionId and s.shard = :shard and s.stock >= :quantity")
+    int decreaseStock(@Param("optionId") Long optionId, @Param("shard") Integer shard, @Param("quantity") Long quantity);
+
+    @Transactional
+    @Modifying
+    @Query("update ProductOptionStock s set s.stock = s.stock + :quantity where s.productOption.id = :optionId and s.shard = :shard")
+    int increaseStock(@Param("optionId") Long optionId, @Param("shard") Integer shard, @Param("quantity") Long quantity);
+
+    @Transactional
+    @Modifying
+    @Query("update ProductOptionStock s set s.stock = :stock where s.productOption.id = :optionId and s.shard = :shard")
+    int updateStock(@Param("optionId") Long optionId, @Param("shard") Integer shard, @Param("stock") Long stock);
+
+    // 영속성 컨텍스트를 거치지 않고 현재 값을 읽기 위해 projection 으로 조회한다.
+    @Query("select s.shard as shard, s.stock as stock from ProductOptionStock s where s.productOption.id = :optionId order by s.shard")
+    List<ShardStock> findShardStocks(@Param("optionId") Long optionId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ProductOptionStock s where s.productOption.id = :optionId")
+    List<ProductOptionStock> findAllByProductOptionIdForUpdate(@Param("optionId") Long optionId);
+
+    @Query("select s.productOption.id as optionId, sum(s.stock) as stock from ProductOptionStock s " +
+            "where s.productOption.id in :optionIds group by s.productOption.id")
+    List<OptionStock> sumStockByProductOptionIdIn(@Param("optionIds") Collection<Long> optionIds);
+
+    interface ShardStock {
+        Integer getShard();
+        Long getStock();
+    }
+
+    interface OptionStock {
+        Long getOptionId();
+        Long getStock();
+    }
+}
@@ -0,0 +1,28 @@
+package com.kakao.shopping.repository;
+
+import com.kakao.shopping.domain.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StockReservation> findAllByUserAccountId(Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StockReservation> findAllByIdIn(Collection<Long> ids);
+
+    // expires_at 인덱스를 따라 만료된 예약만 잘라서 읽는다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from StockReservation r where r.expiresAt < :now order by r.expiresAt")
+    List<StockReservation> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+}
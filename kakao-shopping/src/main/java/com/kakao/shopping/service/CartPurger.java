@@ -0,0 +1,129 @@
+package com.kakao.shopping.service;
+
+import com.kakao.shopping.repository.CartRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+age 동안 변경되지 않은 장바구니를 chunk-size 씩 별도의 트랜잭션에서 삭제한다.
+chunk 사이에 pause 만큼 쉬어서 cart 테이블에 lock 을 오래 잡거나 다른 요청의 처리를 밀어내지 않도록 한다.
+읽은 row 수와 삭제한 row 수는 cart.purge.scanned / cart.purge.deleted 로 기록한다.
+CartStore 를 사용 중이면 chunk 를 지우기 전에 해당 사용자의 반영되지 않은 변경을 먼저 반영한다.
+반영된 장바구니는 modified_at 이 갱신되어 삭제 조건에서 빠지므로, 메모리에서 방금 수정한 장바구니를 지우지 않는다.
+ */
+@Component
+public class CartPurger {
+    private static final Logger log = LoggerFactory.getLogger(CartPurger.class);
+
+    private final CartRepository cartRepository;
+    private final CartStore cartStore;
+    private final CartSummaryCache cartSummaryCache;
+    private final VersionStamps versionStamps;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter scannedCounter;
+    private final Counter deletedCounter;
+    private final Duration age;
+    private final int chunkSize;
+    private final Duration pause;
+
+    public CartPurger(
+            CartRepository cartRepository,
+            CartStore cartStore,
+            CartSummaryCache cartSummaryCache,
+            VersionStamps versionStamps,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${shopping.cart.purge.age:90d}") Duration age,
+            @Value("${shopping.cart.purge.chunk-size:500}") int chunkSize,
+            @Value("${shopping.cart.purge.pause:200ms}") Duration pause
+    ) {
+        this.cartRepository = cartRepository;
+        this.cartStore = cartStore;
+        this.cartSummaryCache = cartSummaryCache;
+        this.versionStamps = versionStamps;
+        this.transactionTemplate = transactionTemplate;
+        this.scannedCounter = meterRegistry.counter("cart.purge.scanned");
+        this.deletedCounter = meterRegistry.counter("cart.purge.deleted");
+        this.age = age;
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+    }
+
+    @Scheduled(cron = "${shopping.cart.purge.cron:0 0 4 * * *}")
+    public void purge() {
+        LocalDateTime before = LocalDateTime.now().minus(age);
+        long total = 0;
+        while (true) {
+            List<Long> ids = cartRepository.findIdsModifiedBefore(before, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            List<Long> userIds = cartRepository.findUserAccountIdsByIdIn(ids);
+            // 반영에 실패한 변경이 남아 있으면 그 장바구니를 지울 수 있으므로 이번 삭제를 멈추고 다음 주기에 다시 시도한다.
+            if (!flush(userIds)) {
+                break;
+            }
+
+            Integer deleted = transactionTemplate.execute(status -> cartRepository.deleteAllByIdInAndModifiedAtBefore(ids, before));
+            int deletedCount = deleted == null ? 0 : deleted;
+            scannedCounter.increment(ids.size());
+            deletedCounter.increment(deletedCount);
+            total += deletedCount;
+
+            // 삭제가 commit 된 뒤에 버려야 cart row lock 을 잡은 채로 저장소의 flush 를 기다리지 않는다.
+            userIds.forEach(userId -> {
+                cartStore.invalidate(userId);
+                cartSummaryCache.invalidate(userId);
+                versionStamps.bumpCart(userId);
+            });
+
+            if (ids.size() < chunkSize || !sleep()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("오래된 장바구니 {}건을 삭제했습니다.", total);
+        }
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private boolean flush(List<Long> userIds) {
+        if (!cartStore.isEnabled()) {
+            return true;
+        }
+
+        try {
+            userIds.forEach(cartStore::flush);
+            return true;
+        }
+        catch (RuntimeException exception) {
+            log.warn("장바구니 변경을 반영하지 못해 오래된 장바구니 삭제를 중단합니다.", exception);
+            return false;
+        }
+    }
+
+    private boolean sleep() {
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.kakao.shopping.service;
+
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.OptionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/*
+옵션 가격이 바뀌었을 때 그 옵션을 담은 장바구니의 price 를 다시 계산한다.
+Cart entity 를 읽지 않고 id 만 chunk-size 개씩 잘라서 chunk 마다 별도의 트랜잭션에서 UPDATE 한다.
+가격은 chunk 마다 다시 읽으므로, 가격이 연달아 바뀌어도 마지막 가격으로 맞춰진다.
+ */
+@Component
+public class CartRepricer {
+    private static final Logger log = LoggerFactory.getLogger(CartRepricer.class);
+
+    private final CartRepository cartRepository;
+    private final OptionRepository optionRepository;
+    private final CartStore cartStore;
+    private final CartSummaryCache cartSummaryCache;
+    private final VersionStamps versionStamps;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public CartRepricer(
+            CartRepository cartRepository,
+            OptionRepository optionRepository,
+            CartStore cartStore,
+            CartSummaryCache cartSummaryCache,
+            VersionStamps versionStamps,
+            TransactionTemplate transactionTemplate,
+            @Value("${shopping.cart.reprice.chunk-size:500}") int chunkSize
+    ) {
+        this.cartRepository = cartRepository;
+        this.optionRepository = optionRepository;
+        this.cartStore = cartStore;
+        this.cartSummaryCache = cartSummaryCache;
+        this.versionStamps = versionStamps;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    /*
+    chunk 하나가 실패하면 남은 장바구니는 이전 가격으로 남지만, 주문 금액은 주문 시점의 옵션 가격으로 계산하므로
+    표시되는 금액만 다음 가격 변경 때까지 어긋난다. 실패를 기록하고, 메모리 저장소의 장바구니는 성공 여부와 관계없이 버린다.
+     */
+    @Async
+    public void reprice(Long optionId) {
+        try {
+            int repriced = repriceChunks(optionId);
+            log.debug("옵션 {} 의 장바구니 {}건 가격을 다시 계산했습니다.", optionId, repriced);
+        }
+        catch (RuntimeException exception) {
+            log.warn("옵션 {} 의 장바구니 가격을 다시 계산하지 못했습니다.", optionId, exception);
+        }
+        finally {
+            cartStore.invalidateOption(optionId);
+        }
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private int repriceChunks(Long optionId) {
+        long after = 0L;
+        int repriced = 0;
+        List<Long> ids;
+        do {
+            long cursor = after;
+            ids = transactionTemplate.execute(status -> {
+                List<Long> chunk = cartRepository.findIdsByProductOptionIdAfter(optionId, cursor, PageRequest.of(0, chunkSize));
+                if (!chunk.isEmpty()) {
+                    Long price = optionRepository.findPriceById(optionId).orElse(null);
+                    if (price == null) {
+                        return List.of();
+                    }
+                    cartRepository.updatePriceByIdIn(chunk, price);
+                    List<Long> userIds = cartRepository.findUserAccountIdsByIdIn(chunk);
+                    cartSummaryCache.invalidateAll(userIds);
+                    userIds.forEach(versionStamps::bumpCart);
+                }
+                return chunk;
+            });
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            after = ids.get(ids.size() - 1);
+            repriced += ids.size();
+        } while (ids.size() == chunkSize);
+        return repriced;
+    }
+}
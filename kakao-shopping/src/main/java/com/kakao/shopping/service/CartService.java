@@ -3,6 +3,8 @@ package com.kakao.shopping.service;
 import com.kakao.shopping._core.errors.exception.BadRequestException;
 import com.kakao.shopping._core.errors.exception.ObjectNotFoundException;
 import com.kakao.shopping._core.errors.exception.PermissionDeniedException;
+import com.kakao.shopping._core.id.IdGenerator;
+import com.kakao.shopping._core.id.IdGenerators;
 import com.kakao.shopping._core.utils.calculator.CartPriceCalculator;
 import com.kakao.shopping._core.utils.calculator.PriceCalculator;
 import com.kakao.shopping.domain.Cart;
@@ -20,38 +22,60 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 
 @RequiredArgsConstructor
 @Service
 public class CartService {
     private final CartRepository cartRepository;
     private final OptionRepository optionRepository;
+    private final CartStore cartStore;
+    private final CartSummaryCache cartSummaryCache;
+    private final VersionStamps versionStamps;
 
     public CartDTO findAll(UserAccount user) {
-        List<Cart> carts = cartRepository.findAllByUserAccountId(user.getId()).orElse(null);
+        List<Cart> carts = cartStore.isEnabled()
+                ? cartStore.findAll(user.getId())
+                : cartRepository.findAllByUserAccountId(user.getId()).orElse(List.of());
+        return toCartDTO(carts);
+    }
 
-        PriceCalculator calculator = new CartPriceCalculator(carts);
-        Long totalPrice = calculator.execute();
+    // 장바구니를 바꿀 때마다 캐시를 지우고, 저장소를 사용 중이면 메모리의 장바구니로 바로 계산한다.
+    public CartSummaryDTO findSummary(UserAccount user) {
+        if (!cartStore.isEnabled()) {
+            return cartSummaryCache.find(user.getId());
+        }
 
-        List<CartProductDTO> products = toCartProductDTO(carts);
-        return new CartDTO(products, totalPrice);
+        List<Cart> carts = cartStore.findAll(user.getId());
+        return new CartSummaryDTO(
+                (long) carts.size(),
+                carts.stream().mapToLong(Cart::getQuantity).sum(),
+                carts.stream().mapToLong(Cart::getPrice).sum()
+        );
     }
 
+    // 기존 장바구니를 읽지 않고 옵션마다 upsert 한 번으로 추가하거나 수량을 늘린다.
     @Transactional
     public void addCartList(List<CartInsertRequest> requests, UserAccount userAccount) {
         List<Long> ids = requests.stream().map(CartInsertRequest::optionId).distinct().toList();
         checkRequestValidation(requests.size(), ids.size());
+        cartStore.invalidate(userAccount.getId());
+        cartSummaryCache.invalidate(userAccount.getId());
+        versionStamps.bumpCart(userAccount.getId());
 
-        List<ProductOption> options = optionRepository.findAllByIdIn(ids);
-        List<Cart> savedCarts = cartRepository.findAllByUserAccountId(userAccount.getId()).orElse(null);
-
+        Map<Long, ProductOption> optionsById = toMap(optionRepository.findAllByIdIn(ids), ProductOption::getId);
+        IdGenerator idGenerator = IdGenerators.of(Cart.class);
+        LocalDateTime now = LocalDateTime.now();
         requests.forEach(request -> {
-            Cart cart = getCartById(userAccount, options, savedCarts, request.optionId());
-            Long quantity = cart.getQuantity() + request.quantity();
-            cart.updateQuantity(quantity);
-            cartRepository.save(cart);
+            ProductOption option = getProductOptionById(optionsById, request.optionId());
+            cartRepository.upsert(idGenerator.nextId(), userAccount.getId(), option.getId(), request.quantity(), option.getPrice(), now);
         });
     }
 
@@ -59,20 +83,18 @@ public class CartService {
     public CartUpdateResponse update(List<CartUpdateRequest> requests, UserAccount user) {
         List<Long> ids = requests.stream().map(CartUpdateRequest::cartId).distinct().toList();
         checkRequestValidation(requests.size(), ids.size());
-
-        List<Cart> savedCarts = cartRepository.findAllByUserAccountId(user.getId())
-                .orElseThrow(() -> new ObjectNotFoundException("장바구니가 비어있습니다."));
-
-        List<Cart> carts = requests
-                .stream()
-                .map(request -> {
-                    Cart cart = getCartById(savedCarts, request.cartId());
-                    Long quantity = request.quantity();
-                    cart.updateQuantity(quantity);
-                    return cart;
-                })
-                .toList();
-        cartRepository.saveAll(carts);
+        cartSummaryCache.invalidate(user.getId());
+        versionStamps.bumpCart(user.getId());
+
+        List<Cart> carts;
+        if (cartStore.isEnabled()) {
+            Map<Long, Long> quantities = new LinkedHashMap<>();
+            requests.forEach(request -> quantities.put(request.cartId(), request.quantity()));
+            carts = cartStore.updateQuantities(user.getId(), quantities);
+        }
+        else {
+            carts = updateQuantities(requests, user);
+        }
 
         PriceCalculator calculator = new CartPriceCalculator(carts);
         Long totalPrice = calculator.execute();
@@ -81,15 +103,24 @@ public class CartService {
         return new CartUpdateResponse(updatedCarts, totalPrice);
     }
 
+    /*
+    요청한 장바구니를 소유자 조건과 함께 한 번의 DELETE 로 삭제한다.
+    삭제된 수가 요청한 수와 다르면 다른 사용자의 장바구니나 없는 장바구니가 섞인 것이므로 전체를 롤백한다.
+     */
+    @Transactional
     public void delete(List<CartDeleteRequest> requests, UserAccount userAccount) {
-        List<Long> ids = requests.stream().map(CartDeleteRequest::cartId).toList();
-        List<Cart> carts = cartRepository.findAllById(ids);
-        carts.forEach(cart -> {
-            if (!cart.getUserAccount().equals(userAccount)) {
-                throw new PermissionDeniedException("해당 계정으로 접근할 수 없는 장바구니 입니다.");
-            }
-        });
-        cartRepository.deleteAll(carts);
+        List<Long> ids = requests.stream().map(CartDeleteRequest::cartId).distinct().toList();
+        cartSummaryCache.invalidate(userAccount.getId());
+        versionStamps.bumpCart(userAccount.getId());
+        if (cartStore.isEnabled()) {
+            cartStore.delete(userAccount.getId(), ids);
+            return;
+        }
+
+        int deleted = cartRepository.deleteAllByIdInAndUserAccountId(ids, userAccount.getId());
+        if (deleted != ids.size()) {
+            throw new PermissionDeniedException("해당 계정으로 접근할 수 없는 장바구니 입니다.");
+        }
     }
 
     // ------------------------------------------------------------------------------------------
@@ -100,59 +131,65 @@ public class CartService {
         }
     }
 
-    private static Cart getCartById(UserAccount userAccount, List<ProductOption> options, List<Cart> savedCarts, Long id) {
-        return savedCarts
+    private List<Cart> updateQuantities(List<CartUpdateRequest> requests, UserAccount user) {
+        Map<Long, Cart> cartsById = toMap(
+                cartRepository.findAllByUserAccountId(user.getId())
+                        .orElseThrow(() -> new ObjectNotFoundException("장바구니가 비어있습니다.")),
+                Cart::getId
+        );
+
+        List<Cart> carts = requests
                 .stream()
-                .filter(cart -> Objects.equals(cart.getProductOption().getId(), id))
-                .findFirst()
-                .orElseGet(() -> {
-                    ProductOption option = getProductOptionById(options, id);
-                    return Cart.builder()
-                            .userAccount(userAccount)
-                            .productOption(option)
-                            .quantity(0L)
-                            .build();
-                });
+                .map(request -> {
+                    Cart cart = getCartById(cartsById, request.cartId());
+                    Long quantity = request.quantity();
+                    cart.updateQuantity(quantity);
+                    return cart;
+                })
+                .toList();
+        return cartRepository.saveAll(carts);
     }
 
-    private static Cart getCartById(List<Cart> savedCarts, Long id) {
-        return savedCarts
-                .stream()
-                .filter(cart1 -> Objects.equals(cart1.getId(), id))
-                .findFirst()
-                .orElseThrow(() -> new ObjectNotFoundException("해당 장바구니를 찾을 수 없습니다."));
+    /*
+    id 가 Long 으로 boxing 되지만 엔티티의 id 가 이미 Long 이라 새로 생기는 할당은 없고, 장바구니는 많아야 수천 줄이라
+    HashMap 으로도 조회가 O(1) 이다. primitive long map 을 쓰려면 fastutil 같은 의존성이 더 필요해 그만한 차이가 없다.
+     */
+    private static <T> Map<Long, T> toMap(List<T> values, Function<T, Long> key) {
+        Map<Long, T> map = new HashMap<>(values.size() * 2);
+        values.forEach(value -> map.put(key.apply(value), value));
+        return map;
     }
 
-    private static ProductOption getProductOptionById(List<ProductOption> options, Long id) {
-        return options
-                .stream()
-                .filter(option1 -> Objects.equals(option1.getId(), id))
-                .findFirst()
-                .orElseThrow(() -> new ObjectNotFoundException("해당 옵션을 찾을 수 없습니다."));
+    private static ProductOption getProductOptionById(Map<Long, ProductOption> optionsById, Long id) {
+        ProductOption option = optionsById.get(id);
+        if (option == null) {
+            throw new ObjectNotFoundException("해당 옵션을 찾을 수 없습니다.");
+        }
+        return option;
     }
 
-    private static List<CartProductDTO> toCartProductDTO(List<Cart> carts) {
-        return carts
-                .stream()
-                .map(cart -> cart.getProductOption().getProduct())
-                .distinct()
-                .map(product -> {
-                    List<CartItemDTO> items = toCartItemDTO(carts, product);
-                    return new CartProductDTO(product.getId(), product.getName(), items);
-                })
-                .toList();
+    private static Cart getCartById(Map<Long, Cart> cartsById, Long id) {
+        Cart cart = cartsById.get(id);
+        if (cart == null) {
+            throw new ObjectNotFoundException("해당 장바구니를 찾을 수 없습니다.");
+        }
+        return cart;
     }
 
-    private static List<CartItemDTO> toCartItemDTO(List<Cart> carts, Product product) {
-        return carts
-                .stream()
-                .filter(cart -> cart.getProductOption().getProduct().getId().equals(product.getId()))
-                .map(item -> {
-                    ProductOption option = item.getProductOption();
-                    CartProductOptionDTO optionDTO = new CartProductOptionDTO(option.getId(), option.getName(), option.getPrice());
-                    return new CartItemDTO(option.getId(), optionDTO, item.getQuantity(), item.getPrice());
-                })
-                .toList();
+    // 장바구니를 한 번 순회하면서 상품별로 묶고 총액도 함께 계산한다. 상품 순서는 처음 등장한 순서를 따른다.
+    private static CartDTO toCartDTO(List<Cart> carts) {
+        Map<Long, CartProductDTO> products = new LinkedHashMap<>();
+        long totalPrice = 0L;
+        for (Cart cart : carts) {
+            ProductOption option = cart.getProductOption();
+            Product product = option.getProduct();
+            CartProductOptionDTO optionDTO = new CartProductOptionDTO(option.getId(), option.getName(), option.getPrice());
+            products.computeIfAbsent(product.getId(), id -> new CartProductDTO(id, product.getName(), new ArrayList<>()))
+                    .carts()
+                    .add(new CartItemDTO(option.getId(), optionDTO, cart.getQuantity(), cart.getPrice()));
+            totalPrice += cart.getPrice();
+        }
+        return new CartDTO(List.copyOf(products.values()), totalPrice);
     }
 
     private static List<UpdatedCartDTO> toUpdatedCartDTO(List<Cart> carts) {
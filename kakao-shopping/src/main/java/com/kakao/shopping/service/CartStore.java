@@ -0,0 +1,268 @@
+package com.kakao.shopping.service;
+
+import com.kakao.shopping._core.errors.exception.ObjectNotFoundException;
+import com.kakao.shopping._core.errors.exception.PermissionDeniedException;
+import com.kakao.shopping._core.utils.cache.LruCache;
+import com.kakao.shopping.domain.Cart;
+import com.kakao.shopping.repository.CartRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+사용자별 장바구니를 메모리에 두고 조회와 수량 변경/삭제를 메모리에서 처리하는 write-behind 저장소.
+변경된 장바구니는 flush-interval 마다 모아서 한 번에 cart 테이블에 반영하고, 주문/예약 전과 종료 시에는 즉시 반영한다.
+최대 max-users 명까지 보관하며, 반영되지 않은 변경이 있는 사용자가 밀려나면 pending 에 두었다가 다음 flush 에서 반영한다.
+장바구니 추가는 DB 에 바로 저장하고 메모리의 장바구니를 버린다.
+ */
+@Component
+public class CartStore {
+    private static final Logger log = LoggerFactory.getLogger(CartStore.class);
+
+    private final CartRepository cartRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final LruCache<Long, Entry> entries;
+    private final Map<Long, Entry> pending = new ConcurrentHashMap<>();
+
+    public CartStore(
+            CartRepository cartRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${shopping.cart.store.enabled:false}") boolean enabled,
+            @Value("${shopping.cart.store.max-users:10000}") int maxUsers
+    ) {
+        this.cartRepository = cartRepository;
+        // 호출한 쪽의 트랜잭션이 롤백되어도 반영한 변경이 사라지지 않도록 항상 별도의 트랜잭션에서 반영한다.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.entries = new LruCache<>(maxUsers, (userId, entry) -> {
+            if (entry.isDirty()) {
+                pending.put(userId, entry);
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<Cart> findAll(Long userId) {
+        Entry entry = entryOf(userId);
+        synchronized (entry) {
+            return List.copyOf(entry.carts.values());
+        }
+    }
+
+    // 요청한 장바구니가 모두 있는지 먼저 확인한 뒤 수량을 바꾸므로, 실패하면 아무것도 변경되지 않는다.
+    public List<Cart> updateQuantities(Long userId, Map<Long, Long> quantities) {
+        Entry entry = entryOf(userId);
+        List<Cart> carts;
+        synchronized (entry) {
+            carts = new ArrayList<>(quantities.size());
+            quantities.keySet().forEach(cartId -> {
+                Cart cart = entry.carts.get(cartId);
+                if (cart == null) {
+                    throw new ObjectNotFoundException("해당 장바구니를 찾을 수 없습니다.");
+                }
+                carts.add(cart);
+            });
+
+            carts.forEach(cart -> {
+                cart.updateQuantity(quantities.get(cart.getId()));
+                entry.updated.add(cart.getId());
+            });
+        }
+        keep(userId, entry);
+        return carts;
+    }
+
+    public void delete(Long userId, Collection<Long> cartIds) {
+        Entry entry = entryOf(userId);
+        synchronized (entry) {
+            if (!entry.carts.keySet().containsAll(cartIds)) {
+                throw new PermissionDeniedException("해당 계정으로 접근할 수 없는 장바구니 입니다.");
+            }
+            cartIds.forEach(cartId -> {
+                entry.carts.remove(cartId);
+                entry.updated.remove(cartId);
+                entry.deleted.add(cartId);
+            });
+        }
+        keep(userId, entry);
+    }
+
+    // 반영되지 않은 변경을 즉시 cart 테이블에 반영한다.
+    public void flush(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            entry = pending.get(userId);
+        }
+        if (entry != null) {
+            flush(entry);
+        }
+    }
+
+    /*
+    변경을 반영한 뒤 메모리의 장바구니를 버린다. 장바구니를 DB 에서 직접 변경하는 쪽(추가, 주문)에서 사용한다.
+    트랜잭션 안에서 호출되면 commit 이후에도 한 번 더 버려서, 그 사이에 이전 상태를 다시 읽어 둔 것이 남지 않게 한다.
+     */
+    public void invalidate(Long userId) {
+        if (!enabled) {
+            return;
+        }
+
+        flush(userId);
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    // 옵션 가격이 바뀌어 DB 의 장바구니 가격이 다시 계산된 뒤, 그 옵션을 담고 있던 사용자의 장바구니를 다시 읽게 한다.
+    public void invalidateOption(Long optionId) {
+        if (!enabled) {
+            return;
+        }
+
+        entries.values().stream().filter(entry -> entry.contains(optionId)).forEach(entry -> invalidate(entry.userId));
+        pending.values().stream().filter(entry -> entry.contains(optionId)).forEach(entry -> invalidate(entry.userId));
+    }
+
+    @Scheduled(fixedDelayString = "${shopping.cart.store.flush-interval-ms:1000}")
+    public void flushAll() {
+        if (!enabled) {
+            return;
+        }
+
+        entries.values().forEach(this::flushQuietly);
+        pending.forEach((userId, entry) -> {
+            flushQuietly(entry);
+            if (!entry.isDirty()) {
+                pending.remove(userId, entry);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushAll();
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private Entry entryOf(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry != null) {
+            return entry;
+        }
+
+        entry = pending.get(userId);
+        if (entry == null) {
+            entry = new Entry(userId, cartRepository.findAllByUserAccountId(userId).orElse(List.of()));
+        }
+        Entry existing = entries.putIfAbsent(userId, entry);
+        return existing != null ? existing : entry;
+    }
+
+    // 변경하는 사이 LRU 에서 밀려난 장바구니라면 pending 에 두어 변경이 버려지지 않게 한다.
+    private void keep(Long userId, Entry entry) {
+        if (entries.get(userId) != entry) {
+            pending.put(userId, entry);
+        }
+    }
+
+    private void flushQuietly(Entry entry) {
+        try {
+            flush(entry);
+        }
+        catch (RuntimeException ignored) {
+            // flush 에서 기록하고 변경을 다시 표시해 두었으므로 다음 주기에 재시도한다.
+        }
+    }
+
+    private void evict(Long userId) {
+        Entry entry = entries.remove(userId);
+        if (entry != null && entry.isDirty()) {
+            flush(entry);
+        }
+        pending.remove(userId);
+    }
+
+    /*
+    변경 내용을 lock 안에서 복사해 두고 DB 반영은 lock 밖에서 한다. 같은 장바구니에 대한 flush 는 flushLock 으로 순서를 지킨다.
+    반영에 실패하면 복사해 둔 변경을 다시 표시하여 다음 flush 에서 재시도한다.
+     */
+    private void flush(Entry entry) {
+        synchronized (entry.flushLock) {
+            Map<Long, Long> quantities = new HashMap<>();
+            Set<Long> deleted;
+            synchronized (entry) {
+                if (!entry.isDirty()) {
+                    return;
+                }
+                entry.updated.forEach(cartId -> quantities.put(cartId, entry.carts.get(cartId).getQuantity()));
+                deleted = new HashSet<>(entry.deleted);
+                entry.updated.clear();
+                entry.deleted.clear();
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!quantities.isEmpty()) {
+                        cartRepository.findAllById(quantities.keySet())
+                                .forEach(cart -> cart.updateQuantity(quantities.get(cart.getId())));
+                    }
+                    if (!deleted.isEmpty()) {
+                        cartRepository.deleteAllByIdInBatch(deleted);
+                    }
+                });
+            }
+            catch (RuntimeException exception) {
+                log.warn("장바구니 반영 실패, 다음 주기에 다시 시도합니다.", exception);
+                synchronized (entry) {
+                    quantities.keySet().stream().filter(entry.carts::containsKey).forEach(entry.updated::add);
+                    entry.deleted.addAll(deleted);
+                }
+                throw exception;
+            }
+        }
+    }
+
+    private static class Entry {
+        private final Long userId;
+        private final Map<Long, Cart> carts = new LinkedHashMap<>();
+        private final Set<Long> updated = new HashSet<>();
+        private final Set<Long> deleted = new HashSet<>();
+        private final Object flushLock = new Object();
+
+        private Entry(Long userId, List<Cart> carts) {
+            this.userId = userId;
+            carts.forEach(cart -> this.carts.put(cart.getId(), cart));
+        }
+
+        private synchronized boolean contains(Long optionId) {
+            return carts.values().stream().anyMatch(cart -> cart.getProductOption().getId().equals(optionId));
+        }
+
+        private boolean isDirty() {
+            return !updated.isEmpty() || !deleted.isEmpty();
+        }
+    }
+}
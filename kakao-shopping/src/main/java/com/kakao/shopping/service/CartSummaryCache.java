@@ -0,0 +1,83 @@
+package com.kakao.shopping.service;
+
+import com.kakao.shopping._core.utils.cache.LruCache;
+import com.kakao.shopping.dto.cart.CartSummaryDTO;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.CartRepository.CartSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+사용자별 장바구니 요약(상품 수, 전체 수량, 총액)을 집계 쿼리 한 번으로 구해서 보관한다.
+장바구니를 바꾸는 쪽에서 invalidate 를 호출하며, 트랜잭션 안이라면 commit 이후에도 한 번 더 지워
+commit 전에 다시 읽어 둔 이전 값이 남지 않게 한다.
+조회 중에 무효화가 일어났다면 읽은 값이 이미 지난 것일 수 있으므로, ProductListCache 처럼 generation 을 비교해 캐시에 넣지 않는다.
+generation 은 사용자 id 로 나눈 slot 마다 따로 두어 다른 사용자의 무효화 때문에 캐시에 넣지 못하는 일을 줄인다.
+ */
+@Component
+public class CartSummaryCache {
+    private static final int GENERATION_SLOTS = 1 << 12;
+
+    private final CartRepository cartRepository;
+    private final LruCache<Long, CartSummaryDTO> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_SLOTS);
+
+    public CartSummaryCache(
+            CartRepository cartRepository,
+            @Value("${shopping.cart.summary.cache-size:10000}") int cacheSize
+    ) {
+        this.cartRepository = cartRepository;
+        this.cache = new LruCache<>(cacheSize);
+    }
+
+    public CartSummaryDTO find(Long userId) {
+        CartSummaryDTO summary = cache.get(userId);
+        if (summary != null) {
+            return summary;
+        }
+
+        long generation = generations.get(slot(userId));
+        CartSummary result = cartRepository.summarizeByUserAccountId(userId);
+        summary = new CartSummaryDTO(result.getLineCount(), result.getTotalQuantity(), result.getTotalPrice());
+        put(generation, userId, summary);
+        return summary;
+    }
+
+    public void invalidate(Long userId) {
+        remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(userId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll(Collection<Long> userIds) {
+        userIds.forEach(this::invalidate);
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private synchronized void put(long generation, Long userId, CartSummaryDTO summary) {
+        if (generations.get(slot(userId)) == generation) {
+            cache.put(userId, summary);
+        }
+    }
+
+    private synchronized void remove(Long userId) {
+        generations.incrementAndGet(slot(userId));
+        cache.remove(userId);
+    }
+
+    private static int slot(Long userId) {
+        return Long.hashCode(userId) & (GENERATION_SLOTS - 1);
+    }
+}
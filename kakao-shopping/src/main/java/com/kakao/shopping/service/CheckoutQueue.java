@@ -0,0 +1,219 @@
+package com.kakao.shopping.service;
+
+import com.kakao.shopping._core.errors.exception.BadRequestException;
+import com.kakao.shopping._core.errors.exception.ObjectNotFoundException;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.order.QueueTicketDTO;
+import com.kakao.shopping.dto.order.QueueTicketDTO.Status;
+import com.kakao.shopping.repository.CartRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+주문(POST /order) 앞단의 대기열.
+대기열 토큰을 발급받은 순서대로 최대 max-concurrent 명까지 입장시키고, 입장한 토큰으로만 주문할 수 있다.
+scope 가 global 이면 하나의 대기열을, option 이면 장바구니의 대표 옵션 id 별로 대기열을 따로 둔다.
+대기 중인 토큰은 ticket-ttl 동안 조회가 없으면, 입장한 토큰은 admission-ttl 안에 주문하지 않으면 만료된다.
+ */
+@Component
+public class CheckoutQueue {
+    private static final long GLOBAL_LANE = 0L;
+
+    private final CartRepository cartRepository;
+    private final boolean enabled;
+    private final boolean perOption;
+    private final int maxConcurrent;
+    private final Duration ticketTtl;
+    private final Duration admissionTtl;
+    private final long retryAfter;
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    public CheckoutQueue(
+            CartRepository cartRepository,
+            @Value("${shopping.order.queue.enabled:false}") boolean enabled,
+            @Value("${shopping.order.queue.scope:global}") String scope,
+            @Value("${shopping.order.queue.max-concurrent:100}") int maxConcurrent,
+            @Value("${shopping.order.queue.ticket-ttl:1m}") Duration ticketTtl,
+            @Value("${shopping.order.queue.admission-ttl:2m}") Duration admissionTtl,
+            @Value("${shopping.order.queue.retry-after:1}") long retryAfter
+    ) {
+        this.cartRepository = cartRepository;
+        this.enabled = enabled;
+        this.perOption = "option".equals(scope);
+        this.maxConcurrent = maxConcurrent;
+        this.ticketTtl = ticketTtl;
+        this.admissionTtl = admissionTtl;
+        this.retryAfter = retryAfter;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public QueueTicketDTO issue(UserAccount userAccount) {
+        if (!enabled) {
+            return new QueueTicketDTO(null, Status.ADMITTED, 0, 0);
+        }
+
+        Long laneKey = perOption
+                ? cartRepository.findFirstOptionIdByUserAccountId(userAccount.getId())
+                        .orElseThrow(() -> new BadRequestException("장바구니가 비어있습니다."))
+                : GLOBAL_LANE;
+        while (true) {
+            Lane lane = lanes.computeIfAbsent(laneKey, key -> new Lane());
+            synchronized (lane) {
+                // sweep 이 비어있는 대기열을 방금 제거했다면 새 대기열로 다시 시도한다.
+                if (lanes.get(laneKey) != lane) {
+                    continue;
+                }
+                Ticket ticket = new Ticket(UUID.randomUUID().toString(), userAccount.getId(), laneKey, ++lane.lastSeq);
+                tickets.put(ticket.token, ticket);
+                lane.waiting.add(ticket);
+                lane.admit(System.currentTimeMillis());
+                return toDTO(lane, ticket);
+            }
+        }
+    }
+
+    public QueueTicketDTO find(String token, UserAccount userAccount) {
+        Ticket ticket = tickets.get(token);
+        if (ticket == null || !ticket.userId.equals(userAccount.getId())) {
+            throw new ObjectNotFoundException("존재하지 않거나 만료된 대기열 토큰입니다.");
+        }
+
+        Lane lane = lanes.get(ticket.laneKey);
+        if (lane == null) {
+            throw new ObjectNotFoundException("존재하지 않거나 만료된 대기열 토큰입니다.");
+        }
+        synchronized (lane) {
+            long now = System.currentTimeMillis();
+            ticket.lastSeenAt = now;
+            lane.admit(now);
+            return toDTO(lane, ticket);
+        }
+    }
+
+    // 입장한 토큰인지 확인한다. 대기열의 상태만 확인하므로 DB 를 조회하지 않는다.
+    public boolean isAdmitted(String token, Long userId) {
+        Ticket ticket = token == null ? null : tickets.get(token);
+        if (ticket == null || !ticket.userId.equals(userId)) {
+            return false;
+        }
+
+        Lane lane = lanes.get(ticket.laneKey);
+        if (lane == null) {
+            return false;
+        }
+        synchronized (lane) {
+            return lane.admitted.containsKey(token) && !ticket.isExpired(System.currentTimeMillis());
+        }
+    }
+
+    // 주문이 끝난 토큰을 대기열에서 내보내 다음 사람이 입장할 수 있게 한다.
+    public void release(String token) {
+        Ticket ticket = token == null ? null : tickets.remove(token);
+        if (ticket == null) {
+            return;
+        }
+
+        Lane lane = lanes.get(ticket.laneKey);
+        if (lane == null) {
+            return;
+        }
+        synchronized (lane) {
+            lane.admitted.remove(token);
+            lane.admit(System.currentTimeMillis());
+        }
+    }
+
+    public long getRetryAfter() {
+        return retryAfter;
+    }
+
+    // 조회 요청이 없어도 만료된 토큰이 자리를 차지하지 않도록 주기적으로 정리한다.
+    @Scheduled(fixedDelayString = "${shopping.order.queue.sweep-interval-ms:1000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        lanes.forEach((key, lane) -> {
+            synchronized (lane) {
+                lane.waiting.removeIf(ticket -> expire(ticket, now));
+                lane.admit(now);
+                if (lane.waiting.isEmpty() && lane.admitted.isEmpty()) {
+                    lanes.remove(key, lane);
+                }
+            }
+        });
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private boolean expire(Ticket ticket, long now) {
+        if (!ticket.isExpired(now)) {
+            return false;
+        }
+        tickets.remove(ticket.token);
+        return true;
+    }
+
+    // 순번은 입장한 마지막 토큰과의 발급 순서 차이로 계산하므로, 앞에서 이탈한 토큰이 있으면 실제보다 클 수 있다.
+    private QueueTicketDTO toDTO(Lane lane, Ticket ticket) {
+        if (ticket.admittedAt > 0) {
+            return new QueueTicketDTO(ticket.token, Status.ADMITTED, 0, 0);
+        }
+        return new QueueTicketDTO(ticket.token, Status.WAITING, Math.max(1, ticket.seq - lane.admittedSeq), retryAfter);
+    }
+
+    private class Lane {
+        private final Deque<Ticket> waiting = new ArrayDeque<>();
+        private final Map<String, Ticket> admitted = new HashMap<>();
+        private long lastSeq;
+        private long admittedSeq;
+
+        // 만료된 토큰을 내보내고 빈 자리만큼 대기 중인 토큰을 순서대로 입장시킨다.
+        private void admit(long now) {
+            admitted.values().removeIf(ticket -> expire(ticket, now));
+            while (admitted.size() < maxConcurrent && !waiting.isEmpty()) {
+                Ticket ticket = waiting.poll();
+                if (expire(ticket, now)) {
+                    continue;
+                }
+                ticket.admittedAt = now;
+                admitted.put(ticket.token, ticket);
+                admittedSeq = ticket.seq;
+            }
+        }
+    }
+
+    private class Ticket {
+        private final String token;
+        private final Long userId;
+        private final Long laneKey;
+        private final long seq;
+        private long lastSeenAt;
+        private long admittedAt;
+
+        private Ticket(String token, Long userId, Long laneKey, long seq) {
+            this.token = token;
+            this.userId = userId;
+            this.laneKey = laneKey;
+            this.seq = seq;
+            this.lastSeenAt = System.currentTimeMillis();
+        }
+
+        private boolean isExpired(long now) {
+            return admittedAt > 0
+                    ? now - admittedAt > admissionTtl.toMillis()
+                    : now - lastSeenAt > ticketTtl.toMillis();
+        }
+    }
+}
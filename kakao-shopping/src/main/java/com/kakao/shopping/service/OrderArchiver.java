@@ -0,0 +1,79 @@
+package com.kakao.shopping.service;
+
+import com.kakao.shopping.repository.OrderDetailArchiveRepository;
+import com.kakao.shopping.repository.OrderDetailRepository;
+import com.kakao.shopping.repository.OrderItemArchiveRepository;
+import com.kakao.shopping.repository.OrderItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+age 보다 오래된 주문을 order_detail_archive / order_item_archive 로 옮겨 운영 테이블과 인덱스가 커지지 않도록 한다.
+batch 마다 별도의 트랜잭션에서 insert ... select 로 복사한 뒤 운영 테이블에서 삭제한다.
+ */
+@Component
+public class OrderArchiver {
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiver.class);
+
+    private final OrderDetailRepository orderDetailRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderDetailArchiveRepository orderDetailArchiveRepository;
+    private final OrderItemArchiveRepository orderItemArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration age;
+    private final int batchSize;
+
+    public OrderArchiver(
+            OrderDetailRepository orderDetailRepository,
+            OrderItemRepository orderItemRepository,
+            OrderDetailArchiveRepository orderDetailArchiveRepository,
+            OrderItemArchiveRepository orderItemArchiveRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${shopping.order.archive.age:180d}") Duration age,
+            @Value("${shopping.order.archive.batch-size:500}") int batchSize
+    ) {
+        this.orderDetailRepository = orderDetailRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.orderDetailArchiveRepository = orderDetailArchiveRepository;
+        this.orderItemArchiveRepository = orderItemArchiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.age = age;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${shopping.order.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        LocalDateTime before = LocalDateTime.now().minus(age);
+        int total = 0;
+        Integer archived;
+        do {
+            archived = transactionTemplate.execute(status -> {
+                List<Long> ids = orderDetailRepository.findIdsCreatedBefore(before, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+
+                LocalDateTime now = LocalDateTime.now();
+                orderItemArchiveRepository.copyFromOrderItem(ids);
+                orderDetailArchiveRepository.copyFromOrderDetail(ids, now);
+                orderItemRepository.deleteAllByOrderDetailIdIn(ids);
+                orderDetailRepository.deleteAllByIdIn(ids);
+                return ids.size();
+            });
+            total += archived == null ? 0 : archived;
+        } while (archived != null && archived == batchSize);
+
+        if (total > 0) {
+            log.info("주문 {}건을 보관 테이블로 옮겼습니다.", total);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.kakao.shopping.service;
+
+import com.kakao.shopping._core.errors.exception.BadRequestException;
+import com.kakao.shopping._core.errors.exception.CustomException;
+import com.kakao.shopping._core.errors.exception.ServiceUnavailableException;
+import com.kakao.shopping._core.errors.exception.TooManyRequestsException;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.order.OrderDTO;
+import com.kakao.shopping.repository.CartRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+플래시 세일처럼 하나의 옵션에 주문이 몰릴 때 사용하는 주문 처리 큐.
+요청을 장바구니의 대표 옵션 id 기준 shard 에 넣고, shard 마다 하나의 writer 가 최대 batch-size 개 또는 linger 시간만큼 모아
+하나의 트랜잭션으로 처리한다. 재고가 부족한 주문은 해당 요청만 실패하고 나머지 주문은 같은 트랜잭션에서 계속 처리된다.
+요청 스레드는 timeout 까지만 기다리며, writer 가 멈추거나 밀려서 처리를 시작하지 못한 요청은 503 으로 돌려보낸다.
+ */
+@Component
+public class OrderPlacementQueue {
+    private static final Logger log = LoggerFactory.getLogger(OrderPlacementQueue.class);
+
+    private final OrderService orderService;
+    private final CartRepository cartRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int shardCount;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration linger;
+    private final Duration timeout;
+    private final List<Shard> shards = new ArrayList<>();
+
+    public OrderPlacementQueue(
+            OrderService orderService,
+            CartRepository cartRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${shopping.order.batch.enabled:false}") boolean enabled,
+            @Value("${shopping.order.batch.shards:4}") int shardCount,
+            @Value("${shopping.order.batch.capacity:1024}") int capacity,
+            @Value("${shopping.order.batch.size:32}") int batchSize,
+            @Value("${shopping.order.batch.linger:5ms}") Duration linger,
+            @Value("${shopping.order.batch.timeout:10s}") Duration timeout
+    ) {
+        this.orderService = orderService;
+        this.cartRepository = cartRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.shardCount = shardCount;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.linger = linger;
+        this.timeout = timeout;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < shardCount; i++) {
+            Shard shard = new Shard(new ArrayBlockingQueue<>(capacity));
+            Thread writer = new Thread(() -> drain(shard), "order-writer-" + i);
+            writer.setDaemon(true);
+            shard.writer = writer;
+            shards.add(shard);
+            writer.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        shards.forEach(shard -> shard.writer.interrupt());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public OrderDTO place(UserAccount userAccount) {
+        Long optionId = cartRepository.findFirstOptionIdByUserAccountId(userAccount.getId())
+                .orElseThrow(() -> new BadRequestException("장바구니가 비어있습니다."));
+
+        Request request = new Request(userAccount, new CompletableFuture<>(), new AtomicBoolean());
+        Shard shard = shards.get((int) Math.floorMod(optionId, (long) shards.size()));
+        if (!shard.queue.offer(request)) {
+            throw new TooManyRequestsException("주문 요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.", 1);
+        }
+
+        try {
+            return await(request);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("주문 처리 대기 중 중단되었습니다.", exception);
+        }
+        catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    /*
+    timeout 안에 결과가 없으면 writer 보다 먼저 요청을 가져가서 처리되지 않았음을 확정한 뒤 다시 시도하라고 응답한다.
+    writer 가 이미 처리를 시작했다면 주문이 commit 될 수 있으므로 한 번 더 기다리고, 그래도 결과가 없으면 주문 내역을 확인하도록 안내한다.
+     */
+    private OrderDTO await(Request request) throws InterruptedException, ExecutionException {
+        try {
+            return request.result().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException exception) {
+            if (request.take()) {
+                throw new ServiceUnavailableException("주문 요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.", 1);
+            }
+        }
+
+        try {
+            return request.result().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException exception) {
+            log.warn("주문 처리 결과를 {} 안에 받지 못했습니다. user={}", timeout.multipliedBy(2), request.userAccount().getId());
+            throw new ServiceUnavailableException("주문 처리 결과를 확인하지 못했습니다. 주문 내역을 확인한 뒤 다시 시도해주세요.", 1);
+        }
+    }
+
+    private void drain(Shard shard) {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<Request> batch = new ArrayList<>(batchSize);
+                batch.add(shard.queue.take());
+
+                long deadline = System.nanoTime() + linger.toNanos();
+                while (batch.size() < batchSize) {
+                    Request next = shard.queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                process(batch);
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        List<Request> remaining = new ArrayList<>();
+        shard.queue.drainTo(remaining);
+        remaining.forEach(request -> request.result().completeExceptionally(
+                new TooManyRequestsException("서버가 종료 중입니다. 잠시 후 다시 시도해주세요.", 1)
+        ));
+    }
+
+    private void process(List<Request> batch) {
+        // 이미 timeout 으로 돌려보낸 요청은 처리하지 않는다.
+        List<Request> taken = batch.stream().filter(Request::take).toList();
+        if (taken.isEmpty()) {
+            return;
+        }
+
+        Map<Request, OrderDTO> placed = new LinkedHashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                placed.clear();
+                for (Request request : taken) {
+                    try {
+                        placed.put(request, orderService.place(request.userAccount()));
+                    }
+                    catch (RuntimeException exception) {
+                        if (!(exception instanceof CustomException)) {
+                            throw exception;
+                        }
+                        request.result().completeExceptionally(exception);
+                    }
+                }
+            });
+            placed.forEach((request, order) -> request.result().complete(order));
+        }
+        catch (RuntimeException exception) {
+            // batch 전체가 롤백된 경우 아직 응답하지 않은 요청은 요청 단위 트랜잭션으로 다시 처리한다.
+            log.warn("주문 batch 처리 실패, 개별 처리로 전환합니다.", exception);
+            taken.stream()
+                    .filter(request -> !request.result().isDone())
+                    .forEach(this::placeAlone);
+        }
+    }
+
+    private void placeAlone(Request request) {
+        try {
+            request.result().complete(orderService.save(request.userAccount()));
+        }
+        catch (RuntimeException exception) {
+            request.result().completeExceptionally(exception);
+        }
+    }
+
+    // taken 은 writer 와 timeout 이 난 요청 스레드 중 먼저 가져간 쪽만 true 로 바꿀 수 있다.
+    private record Request(UserAccount userAccount, CompletableFuture<OrderDTO> result, AtomicBoolean taken) {
+        private boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+
+    private static class Shard {
+        private final BlockingQueue<Request> queue;
+        private Thread writer;
+
+        private Shard(BlockingQueue<Request> queue) {
+            this.queue = queue;
+        }
+    }
+}
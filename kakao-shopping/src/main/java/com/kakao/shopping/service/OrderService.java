@@ -3,105 +3,356 @@ package com.kakao.shopping.service;
 import com.kakao.shopping._core.errors.exception.BadRequestException;
 import com.kakao.shopping._core.errors.exception.ObjectNotFoundException;
 import com.kakao.shopping._core.errors.exception.OutOfStockException;
-import com.kakao.shopping._core.utils.calculator.OrderPriceCalculator;
-import com.kakao.shopping._core.utils.calculator.PriceCalculator;
+import com.kakao.shopping._core.errors.exception.PermissionDeniedException;
 import com.kakao.shopping.domain.*;
+import com.kakao.shopping.dto.order.OrderCancelDTO;
+import com.kakao.shopping.dto.order.OrderCursor;
 import com.kakao.shopping.dto.order.OrderDTO;
 import com.kakao.shopping.dto.order.OrderItemDTO;
+import com.kakao.shopping.dto.order.OrderPageDTO;
 import com.kakao.shopping.dto.order.OrderProductDTO;
+import com.kakao.shopping.dto.order.OrderSummaryDTO;
+import com.kakao.shopping.dto.order.OrderSummaryPageDTO;
+import com.kakao.shopping.dto.order.UpdatedOrderItemDTO;
+import com.kakao.shopping.dto.order.event.OrderPlacedEvent;
+import com.kakao.shopping.dto.order.request.OrderCancelRequest;
+import com.kakao.shopping.dto.order.request.OrderUpdateRequest;
 import com.kakao.shopping.repository.CartRepository;
 import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.repository.OrderChangeLogRepository;
+import com.kakao.shopping.repository.OrderDetailArchiveRepository;
 import com.kakao.shopping.repository.OrderDetailRepository;
+import com.kakao.shopping.repository.OrderItemArchiveRepository;
 import com.kakao.shopping.repository.OrderItemRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 
 @RequiredArgsConstructor
 @Service
 public class OrderService {
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int CANCEL_CHUNK_SIZE = 500;
+
     private final OrderDetailRepository orderDetailRepository;
     private final OrderItemRepository orderItemRepository;
     private final CartRepository cartRepository;
+    private final CartStore cartStore;
+    private final CartSummaryCache cartSummaryCache;
+    private final VersionStamps versionStamps;
     private final OptionRepository optionRepository;
+    private final StockCounter stockCounter;
+    private final ReservationService reservationService;
+    private final OutboxService outboxService;
+    private final OrderChangeLogRepository orderChangeLogRepository;
+    private final OrderDetailArchiveRepository orderDetailArchiveRepository;
+    private final OrderItemArchiveRepository orderItemArchiveRepository;
 
+    /*
+    운영 테이블에 없는 주문은 보관 테이블에서 찾는다.
+    없는 주문이나 다른 사용자의 주문은 두 테이블을 모두 조회한 뒤에야 404 가 되므로 쿼리가 두 번 실행된다.
+    sequential id 에는 생성 시각이 없어 id 만으로 보관 대상인지 알 수 없으므로 보관 테이블 조회를 생략하지 않는다.
+     */
     public OrderDTO findById(Long orderId, UserAccount userAccount) {
-        OrderDetail orderDetail = getOrderDetail(orderId, userAccount);
-        List<OrderItem> items = orderItemRepository.findAllByOrderDetail(orderDetail);
-        return toDTO(orderId, items);
+        List<OrderItem> items = orderItemRepository.findAllByOrderIdAndUserId(orderId, userAccount.getId());
+        if (!items.isEmpty()) {
+            OrderDetail orderDetail = items.get(0).getOrderDetail();
+            return toDTO(orderDetail.getId(), orderDetail.getTotalPrice(), items);
+        }
+
+        OrderDetailArchive archive = orderDetailArchiveRepository.findByIdAndUserAccountId(orderId, userAccount.getId())
+                .orElseThrow(() -> new ObjectNotFoundException("존재하지 않는 주문입니다."));
+        return toDTO(archive.getId(), archive.getTotalPrice(), orderItemArchiveRepository.findAllByOrderDetailId(orderId));
+    }
+
+    // 주문 내역을 최신순으로 조회하며, 페이지의 주문 상품은 한 번의 쿼리로 함께 읽는다.
+    public OrderPageDTO findAll(UserAccount userAccount, String cursor, int size) {
+        OrderDetailPage page = findPage(userAccount, cursor, size);
+        if (page.orderDetails().isEmpty()) {
+            return new OrderPageDTO(List.of(), null);
+        }
+
+        Map<Long, List<OrderItem>> itemsByOrder = new HashMap<>();
+        orderItemRepository.findAllByOrderDetailIdIn(page.orderDetails().stream().map(OrderDetail::getId).toList())
+                .forEach(item -> itemsByOrder.computeIfAbsent(item.getOrderDetail().getId(), id -> new ArrayList<>()).add(item));
+
+        List<OrderDTO> orders = page.orderDetails()
+                .stream()
+                .map(orderDetail -> toDTO(
+                        orderDetail.getId(),
+                        orderDetail.getTotalPrice(),
+                        itemsByOrder.getOrDefault(orderDetail.getId(), List.of())
+                ))
+                .toList();
+        return new OrderPageDTO(orders, page.nextCursor());
+    }
+
+    // 주문 상품을 읽지 않고 order_detail 에 저장된 요약 값만으로 주문 목록을 조회한다.
+    public OrderSummaryPageDTO findAllSummaries(UserAccount userAccount, String cursor, int size) {
+        OrderDetailPage page = findPage(userAccount, cursor, size);
+        List<OrderSummaryDTO> orders = page.orderDetails()
+                .stream()
+                .map(orderDetail -> new OrderSummaryDTO(
+                        orderDetail.getId(),
+                        orderDetail.getCreatedAt(),
+                        orderDetail.getTotalPrice(),
+                        orderDetail.getItemCount(),
+                        orderDetail.getDistinctProductCount(),
+                        orderDetail.getStatus()
+                ))
+                .toList();
+        return new OrderSummaryPageDTO(orders, page.nextCursor());
     }
 
     @Transactional
     public OrderDTO save(UserAccount userAccount) {
+        return place(userAccount);
+    }
+
+    /*
+    이미 열려 있는 트랜잭션 안에서 주문 하나를 처리한다. 여러 주문을 하나의 트랜잭션으로 묶는 OrderPlacementQueue 에서도 사용한다.
+    재고 부족으로 실패하면 이 주문이 변경한 재고만 되돌린 뒤 예외를 던지므로, 같은 트랜잭션의 다른 주문은 그대로 진행할 수 있다.
+     */
+    public OrderDTO place(UserAccount userAccount) {
+        cartStore.invalidate(userAccount.getId());
+        cartSummaryCache.invalidate(userAccount.getId());
+        versionStamps.bumpCart(userAccount.getId());
         List<Cart> carts = cartRepository.findAllByUserAccountId(userAccount.getId())
+                .filter(list -> !list.isEmpty())
                 .orElseThrow(() -> new BadRequestException("장바구니가 비어있습니다."));
 
-        checkStock(carts);
+        List<StockReservation> reservations = reservationService.findHolds(userAccount, carts);
+        decreaseStock(carts, toHeldQuantities(reservations));
+        reservationService.consume(reservations);
         cartRepository.deleteAll(carts);
 
-        carts.forEach(cart -> {
-            ProductOption option = cart.getProductOption();
-            Long stock = option.getStock() - cart.getQuantity();
-            option.updateStock(userAccount, stock);
-            optionRepository.save(option);
-        });
-
-        OrderDetail orderDetail = orderDetailRepository.save(OrderDetail.of(userAccount));
+        OrderDetail orderDetail = OrderDetail.of(userAccount);
         List<OrderItem> items = getOrderItems(carts, orderDetail);
+        orderDetailRepository.save(orderDetail.summarize(items));
 
         orderItemRepository.saveAll(items);
-        return toDTO(orderDetail.getId(), items);
+        outboxService.append(toEvent(userAccount, orderDetail, items));
+        return toDTO(orderDetail.getId(), orderDetail.getTotalPrice(), items);
     }
 
-    private OrderDetail getOrderDetail(Long orderId, UserAccount userAccount) {
+    /*
+    주문 상품 하나의 수량을 바꾼다. 주문 전체를 다시 읽지 않고 해당 주문 상품만 lock 을 잡고 읽은 뒤,
+    바뀐 수량만큼만 재고를 조건부 UPDATE 로 조정하고 주문 요약 값에 차이를 더한다.
+    주문자 본인 또는 관리자만 변경할 수 있으며, 변경 사유는 이력으로 남긴다.
+     */
+    @Transactional
+    public UpdatedOrderItemDTO update(OrderUpdateRequest request, UserAccount userAccount) {
+        OrderItem item = orderItemRepository.findByOrderIdAndOptionIdForUpdate(request.orderId(), request.optionId())
+                .orElseThrow(() -> new ObjectNotFoundException("존재하지 않는 주문 상품입니다."));
+        OrderDetail orderDetail = item.getOrderDetail();
+        checkPermission(orderDetail, userAccount);
+        if (orderDetail.isCancelled()) {
+            throw new BadRequestException("취소된 주문은 변경할 수 없습니다.");
+        }
+
+        Long previousQuantity = item.getQuantity();
+        Long previousPrice = item.getPrice();
+        long delta = request.quantity() - previousQuantity;
+        if (delta == 0) {
+            return toDTO(orderDetail, item);
+        }
+
+        ProductOption option = item.getProductOption();
+        if (delta > 0 && !stockCounter.decrease(option, delta)) {
+            throw new OutOfStockException("재고가 부족합니다: " + option.getName());
+        }
+        if (delta < 0) {
+            stockCounter.increase(option, -delta);
+        }
+
+        item.update(request.quantity());
+        orderDetail.applyItemChange(delta, item.getPrice() - previousPrice);
+        orderChangeLogRepository.save(OrderChangeLog.of(item, previousQuantity, request.reason(), userAccount));
+        return toDTO(orderDetail, item);
+    }
+
+    @Transactional
+    public OrderCancelDTO cancel(Long orderId, UserAccount userAccount) {
         OrderDetail orderDetail = orderDetailRepository.findById(orderId)
                 .orElseThrow(() -> new ObjectNotFoundException("존재하지 않는 주문입니다."));
+        checkPermission(orderDetail, userAccount);
+
+        if (cancelAll(List.of(orderId)) == 0) {
+            throw new BadRequestException("이미 취소된 주문입니다.");
+        }
+        return new OrderCancelDTO(1);
+    }
+
+    // 관리자용 일괄 취소. 존재하지 않거나 이미 취소된 주문은 건너뛴다.
+    @Transactional
+    public OrderCancelDTO cancelAll(OrderCancelRequest request) {
+        return new OrderCancelDTO(cancelAll(request.orderIds()));
+    }
+
+    /*
+    (createdAt, id) 기준 keyset pagination 으로 사용자의 주문을 최신순으로 읽는다.
+    한 건을 더 읽어 다음 페이지 존재 여부를 판단한다.
+     */
+    private OrderDetailPage findPage(UserAccount userAccount, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
 
-        if (!orderDetail.getUserAccount().equals(userAccount)) {
-            throw new BadRequestException("접근할 수 없는 주문내역 입니다.");
+        List<OrderDetail> orderDetails;
+        if (cursor == null) {
+            orderDetails = orderDetailRepository.findFirstPageByUserAccountId(userAccount.getId(), pageRequest);
         }
-        return orderDetail;
+        else {
+            OrderCursor orderCursor = OrderCursor.decode(cursor);
+            orderDetails = orderDetailRepository.findPageByUserAccountIdAfter(
+                    userAccount.getId(), orderCursor.createdAt(), orderCursor.id(), pageRequest
+            );
+        }
+
+        if (orderDetails.size() <= pageSize) {
+            return new OrderDetailPage(orderDetails, null);
+        }
+        List<OrderDetail> page = orderDetails.subList(0, pageSize);
+        OrderDetail last = page.get(pageSize - 1);
+        return new OrderDetailPage(page, new OrderCursor(last.getCreatedAt(), last.getId()).encode());
     }
 
-    private static void checkStock(List<Cart> carts) {
-        carts.forEach(cart -> {
-            if (cart.getProductOption().getStock() < cart.getQuantity()) {
-                throw new OutOfStockException("재고가 부족합니다.");
+    /*
+    주문을 CANCEL_CHUNK_SIZE 개씩 lock 을 잡고 취소 처리하면서, 돌려줄 수량은 옵션별로 합산만 해 둔다.
+    모든 주문을 처리한 뒤 옵션 id 순서로 옵션마다 한 번씩 재고를 돌려놓으므로,
+    같은 옵션을 포함한 주문이 수천 건이어도 재고 UPDATE 는 옵션 수만큼만 실행된다.
+     */
+    private int cancelAll(List<Long> orderIds) {
+        Map<Long, Long> quantities = new TreeMap<>();
+        int cancelled = 0;
+        List<Long> distinctIds = orderIds.stream().distinct().toList();
+        for (int from = 0; from < distinctIds.size(); from += CANCEL_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + CANCEL_CHUNK_SIZE, distinctIds.size()));
+            List<OrderDetail> orderDetails = orderDetailRepository.findAllPlacedByIdInForUpdate(chunk);
+            if (orderDetails.isEmpty()) {
+                continue;
             }
-        });
+
+            orderDetails.forEach(OrderDetail::cancel);
+            orderItemRepository.sumQuantityByOrderDetailIdIn(orderDetails.stream().map(OrderDetail::getId).toList())
+                    .forEach(sum -> quantities.merge(sum.getOptionId(), sum.getQuantity(), Long::sum));
+            cancelled += orderDetails.size();
+        }
+
+        if (!quantities.isEmpty()) {
+            optionRepository.findAllByIdIn(List.copyOf(quantities.keySet()))
+                    .stream()
+                    .sorted(Comparator.comparing(ProductOption::getId))
+                    .forEach(option -> stockCounter.increase(option, quantities.get(option.getId())));
+        }
+        return cancelled;
     }
 
-    private static List<OrderItem> getOrderItems(List<Cart> carts, OrderDetail orderDetail) {
-        return carts
+    private static void checkPermission(OrderDetail orderDetail, UserAccount userAccount) {
+        if (!orderDetail.getUserAccount().getId().equals(userAccount.getId()) && !userAccount.isAdmin()) {
+            throw new PermissionDeniedException("해당 주문에 대한 권한이 없습니다.");
+        }
+    }
+
+    /*
+    재고 확인과 차감을 조건부 UPDATE 한 번으로 처리하여 동시 주문에서도 재고가 음수가 되지 않도록 한다.
+    옵션 id 순서로 갱신하여 여러 옵션을 담은 주문끼리 row lock 순서가 엇갈리지 않게 하고,
+    하나라도 실패하면 앞서 변경한 재고를 되돌리고 실패한 옵션들을 모아 예외를 던진다.
+    예약으로 이미 선점한 수량은 차감에서 제외하고, 예약 이후 장바구니 수량이 줄었다면 차이만큼 돌려놓는다.
+     */
+    private void decreaseStock(List<Cart> carts, Map<Long, Long> heldQuantities) {
+        List<Cart> sortedCarts = carts
                 .stream()
-                .map(cart -> OrderItem.of(orderDetail, cart.getProductOption(), cart.getQuantity(), cart.getPrice()))
+                .sorted(Comparator.comparing(cart -> cart.getProductOption().getId()))
                 .toList();
+
+        Map<ProductOption, Long> applied = new LinkedHashMap<>();
+        List<String> outOfStockOptions = new ArrayList<>();
+        for (Cart cart : sortedCarts) {
+            ProductOption option = cart.getProductOption();
+            long quantity = cart.getQuantity() - heldQuantities.getOrDefault(option.getId(), 0L);
+            if (quantity < 0) {
+                stockCounter.increase(option, -quantity);
+                applied.put(option, quantity);
+            }
+            else if (quantity > 0) {
+                if (stockCounter.decrease(option, quantity)) {
+                    applied.put(option, quantity);
+                }
+                else {
+                    outOfStockOptions.add(option.getName());
+                }
+            }
+        }
+
+        if (!outOfStockOptions.isEmpty()) {
+            applied.forEach((option, quantity) -> {
+                if (quantity > 0) {
+                    stockCounter.increase(option, quantity);
+                }
+                else {
+                    stockCounter.decrease(option, -quantity);
+                }
+            });
+            throw new OutOfStockException("재고가 부족합니다: " + String.join(", ", outOfStockOptions));
+        }
     }
 
-    private static OrderDTO toDTO(Long orderId, List<OrderItem> items) {
-        List<OrderProductDTO> orderProducts = items
+    private static Map<Long, Long> toHeldQuantities(List<StockReservation> reservations) {
+        Map<Long, Long> heldQuantities = new HashMap<>();
+        reservations.forEach(reservation ->
+                heldQuantities.merge(reservation.getProductOption().getId(), reservation.getQuantity(), Long::sum)
+        );
+        return heldQuantities;
+    }
+
+    // 장바구니 price 는 가격 변경 후 비동기로 다시 계산되므로, 주문 금액은 주문 시점의 옵션 가격으로 계산한다.
+    private static List<OrderItem> getOrderItems(List<Cart> carts, OrderDetail orderDetail) {
+        return carts
                 .stream()
-                .map(orderItem -> orderItem.getProductOption().getProduct())
-                .distinct()
-                .map(orderItem -> {
-                    List<OrderItemDTO> options = getOrderItemDTOS(items, orderItem);
-                    return new OrderProductDTO(orderItem.getName(), options);
+                .map(cart -> {
+                    ProductOption option = cart.getProductOption();
+                    return OrderItem.of(orderDetail, option, cart.getQuantity(), option.getPrice());
                 })
                 .toList();
-
-        PriceCalculator calculator = new OrderPriceCalculator(items);
-        Long totalPrice = calculator.execute();
-        return new OrderDTO(orderId, orderProducts, totalPrice);
     }
 
-    private static List<OrderItemDTO> getOrderItemDTOS(List<OrderItem> items, Product orderItem) {
-        return items
+    private static OrderPlacedEvent toEvent(UserAccount userAccount, OrderDetail orderDetail, List<OrderItem> items) {
+        List<OrderPlacedEvent.Item> eventItems = items
                 .stream()
-                .filter(item -> Objects.equals(item.getProductOption().getProduct().getId(), orderItem.getId()))
-                .map(item -> new OrderItemDTO(item.getProductOption().getName(), item.getQuantity(), item.getPrice()))
+                .map(item -> new OrderPlacedEvent.Item(item.getProductOption().getId(), item.getQuantity(), item.getPrice()))
                 .toList();
+        return new OrderPlacedEvent(orderDetail.getId(), userAccount.getId(), eventItems, orderDetail.getCreatedAt());
+    }
+
+    // 주문 상품을 한 번 순회하면서 상품별로 묶는다. 상품 순서는 처음 등장한 순서를 따른다.
+    private static OrderDTO toDTO(Long orderId, Long totalPrice, List<? extends OrderLine> items) {
+        Map<Long, OrderProductDTO> orderProducts = new LinkedHashMap<>();
+        items.forEach(item -> orderProducts
+                .computeIfAbsent(item.getProductId(), productId -> new OrderProductDTO(item.getProductName(), new ArrayList<>()))
+                .items()
+                .add(new OrderItemDTO(item.getOptionName(), item.getQuantity(), item.getPrice()))
+        );
+
+        return new OrderDTO(orderId, List.copyOf(orderProducts.values()), totalPrice);
+    }
+
+    private static UpdatedOrderItemDTO toDTO(OrderDetail orderDetail, OrderItem item) {
+        return new UpdatedOrderItemDTO(
+                orderDetail.getId(),
+                item.getProductOption().getId(),
+                item.getOptionName(),
+                item.getQuantity(),
+                item.getPrice(),
+                orderDetail.getTotalPrice()
+        );
+    }
+
+    private record OrderDetailPage(
+            List<OrderDetail> orderDetails,
+            String nextCursor
+    ) {
     }
 }
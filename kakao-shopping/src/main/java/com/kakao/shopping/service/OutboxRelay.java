@@ -0,0 +1,68 @@
+package com.kakao.shopping.service;
+
+import com.kakao.shopping.domain.OutboxEvent;
+import com.kakao.shopping.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+outbox_event 를 id 순서로 batch 단위로 읽어 @EventListener 로 등록된 핸들러에 전달하고, 전달한 이벤트만 id 로 지운다.
+테이블에 남아 있는 row 가 곧 아직 전달되지 않은 이벤트이므로, 늦게 commit 된 작은 id 의 이벤트도 다음 주기에 전달된다.
+핸들러가 실패하면 그 이전까지 전달한 이벤트만 지우고 다음 주기에 실패한 이벤트부터 다시 전달한다. (at-least-once)
+ */
+@Component
+public class OutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            OutboxService outboxService,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${shopping.outbox.batch-size:100}") int batchSize
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shopping.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        List<OutboxEvent> events;
+        do {
+            events = outboxEventRepository.findAllByOrderById(PageRequest.of(0, batchSize));
+            List<Long> delivered = new ArrayList<>();
+            for (OutboxEvent event : events) {
+                try {
+                    eventPublisher.publishEvent(outboxService.read(event));
+                }
+                catch (RuntimeException exception) {
+                    log.error("outbox 이벤트 전달 실패: {}", event.getId(), exception);
+                    delete(delivered);
+                    return;
+                }
+                delivered.add(event.getId());
+            }
+            delete(delivered);
+        } while (events.size() == batchSize);
+    }
+
+    private void delete(List<Long> delivered) {
+        if (!delivered.isEmpty()) {
+            outboxEventRepository.deleteAllByIdIn(delivered);
+        }
+    }
+}
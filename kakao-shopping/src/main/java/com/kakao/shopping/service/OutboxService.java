@@ -0,0 +1,60 @@
+package com.kakao.shopping.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kakao.shopping.domain.OutboxEvent;
+import com.kakao.shopping.dto.order.event.OrderPlacedEvent;
+import com.kakao.shopping.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+주문과 같은 트랜잭션에서 후속 처리용 이벤트를 outbox_event 테이블에 기록한다.
+기록된 이벤트는 OutboxRelay 가 읽어서 애플리케이션 이벤트로 전달한다.
+ */
+@RequiredArgsConstructor
+@Service
+public class OutboxService {
+    private static final Map<String, Class<?>> EVENT_TYPES = List.<Class<?>>of(OrderPlacedEvent.class)
+            .stream()
+            .collect(Collectors.toMap(Class::getSimpleName, Function.identity()));
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Object event) {
+        String type = event.getClass().getSimpleName();
+        if (!EVENT_TYPES.containsKey(type)) {
+            throw new IllegalArgumentException("등록되지 않은 이벤트 타입입니다: " + type);
+        }
+
+        try {
+            outboxEventRepository.save(OutboxEvent.of(type, objectMapper.writeValueAsString(event)));
+        }
+        catch (JsonProcessingException exception) {
+            throw new IllegalStateException("이벤트를 직렬화할 수 없습니다: " + type, exception);
+        }
+    }
+
+    public Object read(OutboxEvent event) {
+        Class<?> type = EVENT_TYPES.get(event.getType());
+        if (type == null) {
+            throw new IllegalStateException("등록되지 않은 이벤트 타입입니다: " + event.getType());
+        }
+
+        try {
+            return objectMapper.readValue(event.getPayload(), type);
+        }
+        catch (JsonProcessingException exception) {
+            throw new IllegalStateException("이벤트를 읽을 수 없습니다: " + event.getId(), exception);
+        }
+    }
+}
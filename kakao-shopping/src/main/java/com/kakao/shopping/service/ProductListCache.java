@@ -0,0 +1,112 @@
+package com.kakao.shopping.service;
+
+import com.kakao.shopping._core.utils.cache.ExpiringLruCache;
+import com.kakao.shopping.dto.product.ProductListItemDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+GET /product 의 페이지별 상품 id 목록과 상품별 ProductListItemDTO 를 나누어 보관한다.
+상품을 수정하면 그 상품의 항목만, 상품을 추가하면 새 상품이 들어갈 수 있는 페이지만 지우므로 다른 페이지는 그대로 사용한다.
+조회 중에 무효화가 일어났다면 읽은 값이 이미 지난 것일 수 있으므로 generation 을 비교해 캐시에 넣지 않는다.
+넣기와 무효화만 lock 을 잡고, 조회는 lock 없이 처리한다.
+ */
+@Component
+public class ProductListCache {
+    private final ExpiringLruCache<PageKey, List<Long>> pages;
+    private final ExpiringLruCache<Long, ProductListItemDTO> items;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductListCache(
+            MeterRegistry meterRegistry,
+            @Value("${shopping.product.cache.max-pages:1000}") int maxPages,
+            @Value("${shopping.product.cache.max-items:10000}") int maxItems,
+            @Value("${shopping.product.cache.ttl:10m}") Duration ttl
+    ) {
+        this.pages = new ExpiringLruCache<>(maxPages, ttl);
+        this.items = new ExpiringLruCache<>(maxItems, ttl);
+        register(meterRegistry, "product.page", pages);
+        register(meterRegistry, "product.item", items);
+    }
+
+    // 조회를 시작하기 전에 받아 두고 put 할 때 넘긴다.
+    public long generation() {
+        return generation.get();
+    }
+
+    public List<Long> findPage(Pageable pageable) {
+        return pages.get(PageKey.of(pageable));
+    }
+
+    // 찾은 항목만 담아서 반환하며, 빠진 id 는 호출한 쪽에서 다시 읽는다.
+    public Map<Long, ProductListItemDTO> findItems(List<Long> ids) {
+        Map<Long, ProductListItemDTO> found = new HashMap<>();
+        ids.forEach(id -> {
+            ProductListItemDTO item = items.get(id);
+            if (item != null) {
+                found.put(id, item);
+            }
+        });
+        return found;
+    }
+
+    public synchronized void putPage(long generation, Pageable pageable, List<ProductListItemDTO> products) {
+        if (this.generation.get() != generation) {
+            return;
+        }
+        putItems(generation, products);
+        pages.put(PageKey.of(pageable), products.stream().map(ProductListItemDTO::id).toList());
+    }
+
+    public synchronized void putItems(long generation, Collection<ProductListItemDTO> products) {
+        if (this.generation.get() != generation) {
+            return;
+        }
+        products.forEach(product -> items.put(product.id(), product));
+    }
+
+    public synchronized void invalidateItem(Long productId) {
+        generation.incrementAndGet();
+        items.remove(productId);
+    }
+
+    /*
+    새 상품은 기존 상품보다 큰 id 를 받아 id 순서의 뒤쪽에 들어가므로, 가득 차지 않은 페이지와 마지막 id 가 새 상품 id 이상인 페이지만 바뀐다.
+    여러 서버에서 만든 snowflake id 는 같은 시각에 순서가 뒤섞일 수 있어 가장 작은 새 id 를 기준으로 비교한다.
+     */
+    public synchronized void invalidatePagesFrom(Long minProductId) {
+        generation.incrementAndGet();
+        pages.removeIf((key, ids) -> ids.size() < key.size() || ids.get(ids.size() - 1) >= minProductId);
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private static void register(MeterRegistry meterRegistry, String name, ExpiringLruCache<?, ?> cache) {
+        FunctionCounter.builder("cache.gets", cache, ExpiringLruCache::hits)
+                .tags("cache", name, "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cache, ExpiringLruCache::misses)
+                .tags("cache", name, "result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", cache, ExpiringLruCache::evictions)
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", cache, ExpiringLruCache::size)
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    private record PageKey(int page, int size) {
+        private static PageKey of(Pageable pageable) {
+            return new PageKey(pageable.getPageNumber(), pageable.getPageSize());
+        }
+    }
+}
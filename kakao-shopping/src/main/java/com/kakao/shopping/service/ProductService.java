@@ -9,86 +9,159 @@ import com.kakao.shopping.dto.product.ProductDTO;
 import com.kakao.shopping.dto.product.ProductListItemDTO;
 import com.kakao.shopping.dto.product.option.ProductOptionDTO;
 import com.kakao.shopping.dto.product.option.request.OptionInsertRequest;
+import com.kakao.shopping.dto.product.request.OptionStockShardRequest;
 import com.kakao.shopping.dto.product.request.OptionStockUpdateRequest;
 import com.kakao.shopping.dto.product.request.OptionUpdateRequest;
 import com.kakao.shopping.dto.product.request.ProductInsertRequest;
 import com.kakao.shopping.dto.product.request.ProductUpdateRequest;
+import com.kakao.shopping.repository.CartRepository;
 import com.kakao.shopping.repository.OptionRepository;
 import com.kakao.shopping.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
 
 @RequiredArgsConstructor
 @Service
 public class ProductService {
     private final ProductRepository productRepository;
     private final OptionRepository optionRepository;
-
+    private final StockCounter stockCounter;
+    private final CartRepricer cartRepricer;
+    private final VersionStamps versionStamps;
+    private final ProductListCache productListCache;
+    private final CartRepository cartRepository;
+    private final CartStore cartStore;
+
+    /*
+    페이지의 상품 id 목록과 상품별 항목을 캐시에서 먼저 찾고, 없는 것만 DB 에서 읽는다.
+    새 상품이 뒤쪽 페이지에만 들어가도록 id 순서로 정렬한다.
+     */
     public List<ProductListItemDTO> findAllProducts(PageRequest pageRequest) {
-        return productRepository.findAll(pageRequest)
-                .getContent()
-                .stream()
-                .map(ProductService::toDTO)
-                .toList();
+        long generation = productListCache.generation();
+        List<Long> ids = productListCache.findPage(pageRequest);
+        if (ids == null) {
+            List<ProductListItemDTO> products = productRepository.findAll(pageRequest.withSort(Sort.by("id")))
+                    .getContent()
+                    .stream()
+                    .map(ProductService::toDTO)
+                    .toList();
+            productListCache.putPage(generation, pageRequest, products);
+            return products;
+        }
+
+        Map<Long, ProductListItemDTO> items = productListCache.findItems(ids);
+        List<Long> missingIds = ids.stream().filter(id -> !items.containsKey(id)).toList();
+        if (!missingIds.isEmpty()) {
+            List<ProductListItemDTO> loaded = productRepository.findAllById(missingIds).stream().map(ProductService::toDTO).toList();
+            productListCache.putItems(generation, loaded);
+            loaded.forEach(item -> items.put(item.id(), item));
+        }
+        return ids.stream().map(items::get).filter(Objects::nonNull).toList();
     }
 
     public ProductDTO findProductById(Long id) {
         List<ProductOption> productOptions = getProductOptionsById(id);
         Product product = productOptions.get(0).getProduct();
-        List<ProductOptionDTO> options = toDTO(productOptions);
+        List<ProductOptionDTO> options = toDTO(productOptions, stockCounter.stocksOf(productOptions));
         return new ProductDTO(product.getId(), product.getName(), product.getDescription(), product.getImage(), product.getPrice(), product.getStarCount(), options);
     }
 
     public void saveProduct(UserAccount userAccount, ProductInsertRequest request) {
-        productRepository.save(Product.of(request, userAccount));
+        Product product = productRepository.save(Product.of(request, userAccount));
+        productListCache.invalidatePagesFrom(product.getId());
     }
 
     public List<Product> saveProducts(UserAccount userAccount, List<ProductInsertRequest> requests) {
-        return productRepository.saveAll(
+        List<Product> products = productRepository.saveAll(
                 requests.stream()
                         .map(request -> Product.of(request, userAccount))
                         .toList()
         );
+        products.stream()
+                .map(Product::getId)
+                .min(Comparator.naturalOrder())
+                .ifPresent(productListCache::invalidatePagesFrom);
+        return products;
     }
 
     public ProductOption saveOption(UserAccount userAccount, OptionInsertRequest request) {
-        return optionRepository.save(ProductOption.of(request, userAccount));
+        ProductOption option = optionRepository.save(ProductOption.of(request, userAccount));
+        versionStamps.bumpProduct(option.getProduct().getId());
+        return option;
     }
 
     public List<ProductOption> saveOptions(UserAccount userAccount, List<OptionInsertRequest> requests) {
-        return optionRepository.saveAll(
+        List<ProductOption> options = optionRepository.saveAll(
                 requests.stream()
                         .map(request -> ProductOption.of(request, userAccount))
                         .toList()
         );
+        options.forEach(option -> versionStamps.bumpProduct(option.getProduct().getId()));
+        return options;
     }
 
     public ProductOptionDTO updateStockById(UserAccount userAccount, OptionStockUpdateRequest request) {
         ProductOption option = getProductOptionById(request.optionId(), userAccount);
-        option.updateStock(userAccount, request.stock());
-        ProductOption updatedOption = optionRepository.save(option);
-        return toDTO(List.of(updatedOption)).get(0);
+        stockCounter.set(userAccount, option.getId(), request.stock());
+        return toDTO(option, request.stock());
+    }
+
+    public ProductOptionDTO updateStockShardById(UserAccount userAccount, Long id, OptionStockShardRequest request) {
+        getProductOptionById(id, userAccount);
+        ProductOption option = stockCounter.reshard(userAccount, id, request.shardCount());
+        return toDTO(List.of(option), stockCounter.stocksOf(List.of(option))).get(0);
     }
 
     public ProductListItemDTO updateProductById(UserAccount userAccount, Long id, ProductUpdateRequest request) {
         Product product = getProductById(userAccount, id);
+        String previousName = product.getName();
         update(userAccount, request, product);
         Product updatedProduct = productRepository.save(product);
+        versionStamps.bumpProduct(updatedProduct.getId());
+        productListCache.invalidateItem(updatedProduct.getId());
+        if (!updatedProduct.getName().equals(previousName)) {
+            refreshCarts(optionRepository.findAllByProductId(updatedProduct.getId()).stream().map(ProductOption::getId).toList());
+        }
         return toDTO(updatedProduct);
     }
 
     public ProductOptionDTO updateOptionById(UserAccount userAccount, Long id, OptionUpdateRequest request) {
         ProductOption option = getProductOptionById(id, userAccount);
-        update(userAccount, request, option);
-        ProductOption updatedOption = optionRepository.save(option);
-        return toDTO(List.of(updatedOption)).get(0);
+        Long previousPrice = option.getPrice();
+        String previousName = option.getName();
+        optionRepository.updateNameAndPrice(id, request.name(), request.price(), LocalDateTime.now(), userAccount);
+        ProductOption updatedOption = optionRepository.findById(id)
+                .orElseThrow(() -> new BadRequestException("존재하지 않는 상품입니다."));
+        versionStamps.bumpProduct(updatedOption.getProduct().getId());
+        if (!updatedOption.getPrice().equals(previousPrice)) {
+            cartRepricer.reprice(updatedOption.getId());
+        }
+        if (!updatedOption.getName().equals(previousName)) {
+            refreshCarts(List.of(updatedOption.getId()));
+        }
+        return toDTO(List.of(updatedOption), stockCounter.stocksOf(List.of(updatedOption))).get(0);
     }
 
     // ------------------------------------------------------------------------------------------
 
+    /*
+    GET /cart 응답에는 상품과 옵션의 이름이 들어가므로, 이름이 바뀌면 해당 옵션을 담은 사용자의 장바구니 ETag 를 바꾼다.
+    메모리 저장소의 장바구니도 이전 이름을 들고 있으므로 먼저 버린다. 가격 변경은 CartRepricer 가 같은 처리를 한다.
+     */
+    private void refreshCarts(List<Long> optionIds) {
+        if (optionIds.isEmpty()) {
+            return;
+        }
+
+        optionIds.forEach(cartStore::invalidateOption);
+        cartRepository.findUserAccountIdsByProductOptionIdIn(optionIds).forEach(versionStamps::bumpCart);
+    }
+
     private static ProductListItemDTO toDTO(Product product) {
         return new ProductListItemDTO(
                 product.getId(),
@@ -100,12 +173,16 @@ public class ProductService {
         );
     }
 
-    private static List<ProductOptionDTO> toDTO(List<ProductOption> productOptions) {
+    private static List<ProductOptionDTO> toDTO(List<ProductOption> productOptions, Map<Long, Long> stocks) {
         return productOptions.stream()
-                .map(productOption -> new ProductOptionDTO(productOption.getId(), productOption.getName(), productOption.getPrice(), productOption.getStock()))
+                .map(productOption -> toDTO(productOption, stocks.get(productOption.getId())))
                 .toList();
     }
 
+    private static ProductOptionDTO toDTO(ProductOption productOption, Long stock) {
+        return new ProductOptionDTO(productOption.getId(), productOption.getName(), productOption.getPrice(), stock);
+    }
+
     private List<ProductOption> getProductOptionsById(Long id) {
         if (id <= 0) {
             throw new BadRequestException("id는 음수가 될 수 없습니다.");
@@ -145,9 +222,4 @@ public class ProductService {
                 .updateImage(userAccount, request.image())
                 .updatePrice(userAccount, request.price());
     }
-
-    private static void update(UserAccount userAccount, OptionUpdateRequest request, ProductOption option) {
-        option.updateName(userAccount, request.name())
-                .updatePrice(userAccount, request.price());
-    }
 }
@@ -0,0 +1,71 @@
+package com.kakao.shopping.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+옵션 id 를 key 로 하는 재고 예약 인덱스.
+주문 시 사용자가 예약을 가지고 있는지 DB 조회 없이 확인하기 위해 사용하며, 원본 데이터는 stock_reservation 테이블이다.
+같은 옵션에 대한 갱신만 서로 경합하도록 옵션 id 기준으로 lock 을 나누어 사용한다.
+ */
+@Component
+public class ReservationIndex {
+    private static final int STRIPES = 64;
+
+    private final Object[] locks = new Object[STRIPES];
+    private final Map<Long, Map<Long, Hold>> holdsByOption = new ConcurrentHashMap<>();
+
+    public ReservationIndex() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public void put(Hold hold) {
+        synchronized (lockOf(hold.optionId())) {
+            holdsByOption.computeIfAbsent(hold.optionId(), key -> new HashMap<>()).put(hold.userId(), hold);
+        }
+    }
+
+    public void remove(Hold hold) {
+        synchronized (lockOf(hold.optionId())) {
+            Map<Long, Hold> holds = holdsByOption.get(hold.optionId());
+            if (holds == null) {
+                return;
+            }
+            holds.remove(hold.userId(), hold);
+            if (holds.isEmpty()) {
+                holdsByOption.remove(hold.optionId());
+            }
+        }
+    }
+
+    public List<Hold> find(Long userId, Collection<Long> optionIds) {
+        List<Hold> found = new ArrayList<>();
+        for (Long optionId : optionIds) {
+            synchronized (lockOf(optionId)) {
+                Map<Long, Hold> holds = holdsByOption.get(optionId);
+                if (holds != null && holds.containsKey(userId)) {
+                    found.add(holds.get(userId));
+                }
+            }
+        }
+        return found;
+    }
+
+    private Object lockOf(Long optionId) {
+        return locks[(int) Math.floorMod(optionId, (long) STRIPES)];
+    }
+
+    public record Hold(
+            Long reservationId,
+            Long optionId,
+            Long userId,
+            Long quantity,
+            LocalDateTime expiresAt
+    ) {
+    }
+}
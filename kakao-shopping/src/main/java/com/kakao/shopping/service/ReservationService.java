@@ -0,0 +1,173 @@
+package com.kakao.shopping.service;
+
+import com.kakao.shopping._core.errors.exception.BadRequestException;
+import com.kakao.shopping._core.errors.exception.OutOfStockException;
+import com.kakao.shopping.domain.Cart;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.StockReservation;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.order.ReservationDTO;
+import com.kakao.shopping.dto.order.ReservationItemDTO;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.StockReservationRepository;
+import com.kakao.shopping.service.ReservationIndex.Hold;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Service
+public class ReservationService {
+    private final StockReservationRepository reservationRepository;
+    private final CartRepository cartRepository;
+    private final CartStore cartStore;
+    private final StockCounter stockCounter;
+    private final ReservationIndex reservationIndex;
+    private final Duration ttl;
+
+    public ReservationService(
+            StockReservationRepository reservationRepository,
+            CartRepository cartRepository,
+            CartStore cartStore,
+            StockCounter stockCounter,
+            ReservationIndex reservationIndex,
+            @Value("${shopping.reservation.ttl:10m}") Duration ttl
+    ) {
+        this.reservationRepository = reservationRepository;
+        this.cartRepository = cartRepository;
+        this.cartStore = cartStore;
+        this.stockCounter = stockCounter;
+        this.reservationIndex = reservationIndex;
+        this.ttl = ttl;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        reservationRepository.findAll().forEach(reservation -> reservationIndex.put(toHold(reservation)));
+    }
+
+    /*
+    주문 시작 시 장바구니에 담긴 수량만큼 재고를 ttl 동안 선점한다.
+    기존 예약이 있다면 재고를 돌려놓고 현재 장바구니 기준으로 다시 예약한다.
+     */
+    @Transactional
+    public ReservationDTO reserve(UserAccount userAccount) {
+        cartStore.flush(userAccount.getId());
+        List<Cart> carts = cartRepository.findAllByUserAccountId(userAccount.getId())
+                .filter(list -> !list.isEmpty())
+                .orElseThrow(() -> new BadRequestException("장바구니가 비어있습니다."));
+
+        release(reservationRepository.findAllByUserAccountId(userAccount.getId()));
+
+        List<String> outOfStockOptions = new ArrayList<>();
+        carts.stream()
+                .sorted(Comparator.comparing(cart -> cart.getProductOption().getId()))
+                .forEach(cart -> {
+                    ProductOption option = cart.getProductOption();
+                    if (!stockCounter.decrease(option, cart.getQuantity())) {
+                        outOfStockOptions.add(option.getName());
+                    }
+                });
+
+        if (!outOfStockOptions.isEmpty()) {
+            throw new OutOfStockException("재고가 부족합니다: " + String.join(", ", outOfStockOptions));
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        List<StockReservation> reservations = reservationRepository.saveAll(
+                carts.stream()
+                        .map(cart -> StockReservation.of(userAccount, cart.getProductOption(), cart.getQuantity(), expiresAt))
+                        .toList()
+        );
+        List<Hold> holds = reservations.stream().map(ReservationService::toHold).toList();
+        afterCommit(() -> holds.forEach(reservationIndex::put));
+
+        List<ReservationItemDTO> items = carts
+                .stream()
+                .map(cart -> new ReservationItemDTO(cart.getProductOption().getId(), cart.getProductOption().getName(), cart.getQuantity()))
+                .toList();
+        return new ReservationDTO(items, expiresAt);
+    }
+
+    @Transactional
+    public void cancel(UserAccount userAccount) {
+        release(reservationRepository.findAllByUserAccountId(userAccount.getId()));
+    }
+
+    /*
+    주문 트랜잭션 안에서 호출되며, 장바구니 옵션 중 사용자가 예약해 둔 것을 lock 을 잡고 읽어온다.
+    예약이 없는 대부분의 주문은 인덱스만 확인하고 DB 조회 없이 돌아간다.
+    reaper 가 먼저 회수한 예약은 row 가 없으므로 결과에서 빠지고, 호출한 쪽에서 재고를 다시 차감한다.
+     */
+    @Transactional
+    public List<StockReservation> findHolds(UserAccount userAccount, List<Cart> carts) {
+        List<Long> optionIds = carts.stream().map(cart -> cart.getProductOption().getId()).toList();
+        List<Hold> holds = reservationIndex.find(userAccount.getId(), optionIds);
+        if (holds.isEmpty()) {
+            return List.of();
+        }
+        return reservationRepository.findAllByIdIn(holds.stream().map(Hold::reservationId).toList());
+    }
+
+    // 주문으로 확정된 예약을 재고 반환 없이 삭제한다.
+    @Transactional
+    public void consume(List<StockReservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+
+        reservationRepository.deleteAllInBatch(reservations);
+
+        List<Hold> holds = reservations.stream().map(ReservationService::toHold).toList();
+        afterCommit(() -> holds.forEach(reservationIndex::remove));
+    }
+
+    /*
+    예약된 재고를 옵션별로 합쳐서 돌려놓고 예약을 삭제한다.
+    reservations 는 PESSIMISTIC_WRITE 로 읽은 것이어야 주문 확정과 중복으로 처리되지 않는다.
+     */
+    @Transactional
+    public void release(List<StockReservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+
+        Map<ProductOption, Long> quantities = new TreeMap<>(Comparator.comparing(ProductOption::getId));
+        reservations.forEach(reservation ->
+                quantities.merge(reservation.getProductOption(), reservation.getQuantity(), Long::sum)
+        );
+        quantities.forEach(stockCounter::increase);
+        reservationRepository.deleteAllInBatch(reservations);
+
+        List<Hold> holds = reservations.stream().map(ReservationService::toHold).toList();
+        afterCommit(() -> holds.forEach(reservationIndex::remove));
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private static Hold toHold(StockReservation reservation) {
+        return new Hold(
+                reservation.getId(),
+                reservation.getProductOption().getId(),
+                reservation.getUserAccount().getId(),
+                reservation.getQuantity(),
+                reservation.getExpiresAt()
+        );
+    }
+
+    private static void afterCommit(Runnable runnable) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+        });
+    }
+}
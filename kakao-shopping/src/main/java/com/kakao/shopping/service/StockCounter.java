@@ -0,0 +1,194 @@
+package com.kakao.shopping.service;
+
+import com.kakao.shopping._core.errors.exception.BadRequestException;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.ProductOptionStock;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.repository.ProductOptionStockRepository;
+import com.kakao.shopping.repository.ProductOptionStockRepository.ShardStock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+옵션 재고의 증감은 모두 이 클래스를 거친다.
+stockShardCount 가 1 이면 product_option.stock 컬럼 하나를, 1 보다 크면 product_option_stock 의 shard row 들을 조건부 UPDATE 로 갱신한다.
+shard 는 임의의 위치부터 차례로 시도하여 주문이 몰려도 하나의 row 에 lock 이 집중되지 않도록 한다.
+재고가 바뀔 수 있는 호출마다 상품의 버전을 올려 GET /product/{id} 의 ETag 가 달라지게 한다.
+ */
+@RequiredArgsConstructor
+@Component
+public class StockCounter {
+    private final OptionRepository optionRepository;
+    private final ProductOptionStockRepository stockRepository;
+    private final VersionStamps versionStamps;
+
+    /*
+    option 의 shard 수는 읽은 뒤 reshard 로 바뀌었을 수 있다. 차감에 실패하면 lock 을 잡고 현재 shard 수를 다시 읽어서,
+    그대로라면 재고 부족으로, 바뀌었다면 현재 shard 수로 한 번 더 시도한다.
+     */
+    public boolean decrease(ProductOption option, long quantity) {
+        versionStamps.bumpProduct(option.getProduct().getId());
+        if (decrease(option.getId(), option.getStockShardCount(), quantity)) {
+            return true;
+        }
+
+        int shardCount = currentShardCount(option.getId());
+        return shardCount != option.getStockShardCount() && decrease(option.getId(), shardCount, quantity);
+    }
+
+    // 반영할 row 가 없으면 현재 shard 수로 다시 시도하고, 그래도 없으면 재고가 사라지지 않도록 예외를 던져 롤백한다.
+    public void increase(ProductOption option, long quantity) {
+        versionStamps.bumpProduct(option.getProduct().getId());
+        if (increase(option.getId(), option.getStockShardCount(), quantity)) {
+            return;
+        }
+
+        if (!increase(option.getId(), currentShardCount(option.getId()), quantity)) {
+            throw new IllegalStateException("재고를 반영할 옵션을 찾을 수 없습니다: " + option.getId());
+        }
+    }
+
+    // shard 로 나뉜 옵션은 shard 재고의 합을, 그 외에는 stock 컬럼 값을 옵션 id 별로 반환한다.
+    public Map<Long, Long> stocksOf(List<ProductOption> options) {
+        Map<Long, Long> stocks = new HashMap<>();
+        List<Long> shardedIds = new ArrayList<>();
+        options.forEach(option -> {
+            if (option.isStockSharded()) {
+                shardedIds.add(option.getId());
+            }
+            else {
+                stocks.put(option.getId(), option.getStock());
+            }
+        });
+
+        if (!shardedIds.isEmpty()) {
+            stockRepository.sumStockByProductOptionIdIn(shardedIds)
+                    .forEach(stock -> stocks.put(stock.getOptionId(), stock.getStock()));
+        }
+        return stocks;
+    }
+
+    /*
+    판매자가 입력한 전체 재고를 shard 에 고르게 나누어 저장한다.
+    reshard 와 같은 순서로 옵션과 shard row 에 lock 을 잡아 현재 shard 수를 기준으로 나누고, 재고 컬럼만 UPDATE 한다.
+     */
+    @Transactional
+    public void set(UserAccount userAccount, Long optionId, long total) {
+        ProductOption option = optionRepository.findByIdForUpdate(optionId)
+                .orElseThrow(() -> new BadRequestException("존재하지 않는 상품입니다."));
+        versionStamps.bumpProduct(option.getProduct().getId());
+        List<ProductOptionStock> shards = stockRepository.findAllByProductOptionIdForUpdate(optionId);
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!option.isStockSharded()) {
+            optionRepository.updateStock(optionId, total, now, userAccount);
+            return;
+        }
+
+        long[] distributed = distribute(total, shards.size());
+        List<Integer> indices = shards.stream().map(ProductOptionStock::getShard).sorted().toList();
+        for (int i = 0; i < indices.size(); i++) {
+            stockRepository.updateStock(optionId, indices.get(i), distributed[i]);
+        }
+        optionRepository.updateStock(optionId, 0L, now, userAccount);
+    }
+
+    /*
+    옵션과 기존 shard row 에 lock 을 잡고 현재 전체 재고를 구한 뒤, 새로운 shard 수에 맞게 다시 나눈다.
+    shardCount 가 1 이면 재고를 다시 stock 컬럼으로 합친다.
+     */
+    @Transactional
+    public ProductOption reshard(UserAccount userAccount, Long optionId, int shardCount) {
+        ProductOption option = optionRepository.findByIdForUpdate(optionId)
+                .orElseThrow(() -> new BadRequestException("존재하지 않는 상품입니다."));
+        versionStamps.bumpProduct(option.getProduct().getId());
+        List<ProductOptionStock> shards = stockRepository.findAllByProductOptionIdForUpdate(optionId);
+
+        long total = option.isStockSharded()
+                ? shards.stream().mapToLong(ProductOptionStock::getStock).sum()
+                : option.getStock();
+
+        stockRepository.deleteAllInBatch(shards);
+        if (shardCount == 1) {
+            option.updateStock(userAccount, total);
+        }
+        else {
+            long[] distributed = distribute(total, shardCount);
+            List<ProductOptionStock> newShards = new ArrayList<>();
+            for (int shard = 0; shard < shardCount; shard++) {
+                newShards.add(ProductOptionStock.of(option, shard, distributed[shard]));
+            }
+            stockRepository.saveAll(newShards);
+            option.updateStock(userAccount, 0L);
+        }
+        return optionRepository.save(option.updateStockShardCount(userAccount, shardCount));
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private boolean decrease(Long optionId, int shardCount, long quantity) {
+        if (shardCount <= 1) {
+            return optionRepository.decreaseStock(optionId, quantity) == 1;
+        }
+
+        int start = ThreadLocalRandom.current().nextInt(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            int shard = (start + i) % shardCount;
+            if (stockRepository.decreaseStock(optionId, shard, quantity) == 1) {
+                return true;
+            }
+        }
+        return decreaseAcrossShards(optionId, quantity);
+    }
+
+    private boolean increase(Long optionId, int shardCount, long quantity) {
+        if (shardCount <= 1) {
+            return optionRepository.increaseStock(optionId, quantity) == 1;
+        }
+
+        int shard = ThreadLocalRandom.current().nextInt(shardCount);
+        return stockRepository.increaseStock(optionId, shard, quantity) == 1;
+    }
+
+    // reshard 가 옵션 row 에 lock 을 잡고 shard 를 바꾸므로, 같은 row 를 lock 을 잡고 읽어야 commit 된 shard 수를 볼 수 있다.
+    private int currentShardCount(Long optionId) {
+        return optionRepository.findStockShardCountForUpdate(optionId)
+                .orElseThrow(() -> new BadRequestException("존재하지 않는 상품입니다."));
+    }
+
+    /*
+    어느 shard 도 혼자서는 수량을 채우지 못할 때 여러 shard 에서 나누어 차감한다.
+    도중에 다른 주문이 먼저 가져가 수량을 채우지 못하면 차감한 만큼 되돌리고 실패를 반환한다.
+     */
+    private boolean decreaseAcrossShards(Long optionId, long quantity) {
+        long remaining = quantity;
+        Map<Integer, Long> applied = new HashMap<>();
+        for (ShardStock shardStock : stockRepository.findShardStocks(optionId)) {
+            long taken = Math.min(shardStock.getStock(), remaining);
+            if (taken > 0 && stockRepository.decreaseStock(optionId, shardStock.getShard(), taken) == 1) {
+                applied.put(shardStock.getShard(), taken);
+                remaining -= taken;
+            }
+            if (remaining == 0) {
+                return true;
+            }
+        }
+
+        applied.forEach((shard, taken) -> stockRepository.increaseStock(optionId, shard, taken));
+        return false;
+    }
+
+    private static long[] distribute(long total, int shardCount) {
+        long[] distributed = new long[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            distributed[shard] = total / shardCount + (shard < total % shardCount ? 1 : 0);
+        }
+        return distributed;
+    }
+}
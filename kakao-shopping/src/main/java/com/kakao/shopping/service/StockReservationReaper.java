@@ -0,0 +1,49 @@
+package com.kakao.shopping.service;
+
+import com.kakao.shopping.domain.StockReservation;
+import com.kakao.shopping.repository.StockReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+만료된 재고 예약을 batch 단위로 회수한다.
+한 batch 씩 별도의 트랜잭션으로 처리하여 예약 row 에 대한 lock 을 오래 잡지 않는다.
+ */
+@Component
+public class StockReservationReaper {
+    private final StockReservationRepository reservationRepository;
+    private final ReservationService reservationService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public StockReservationReaper(
+            StockReservationRepository reservationRepository,
+            ReservationService reservationService,
+            TransactionTemplate transactionTemplate,
+            @Value("${shopping.reservation.reaper-batch-size:100}") int batchSize
+    ) {
+        this.reservationRepository = reservationRepository;
+        this.reservationService = reservationService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shopping.reservation.reaper-interval-ms:10000}")
+    public void reap() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer reaped;
+        do {
+            reaped = transactionTemplate.execute(status -> {
+                List<StockReservation> expired = reservationRepository.findExpired(now, PageRequest.of(0, batchSize));
+                reservationService.release(expired);
+                return expired.size();
+            });
+        } while (reaped != null && reaped == batchSize);
+    }
+}
@@ -0,0 +1,63 @@
+package com.kakao.shopping.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+GET /cart, GET /product/{id} 의 ETag 를 만들기 위한 메모리 버전 번호.
+사용자의 장바구니나 상품(옵션, 재고 포함)이 바뀌면 해당 id 의 버전을 올린다.
+id 를 고정된 개수의 slot 에 나누어 담으므로 메모리는 늘어나지 않고, 같은 slot 의 다른 id 가 바뀌어도 ETag 가 달라질 뿐 잘못된 304 는 생기지 않는다.
+서버가 다시 시작되면 이전 버전을 알 수 없으므로 시작 시각을 ETag 에 함께 넣는다.
+ */
+@Component
+public class VersionStamps {
+    private static final int SLOTS = 1 << 14;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLongArray carts = new AtomicLongArray(SLOTS);
+    private final AtomicLongArray products = new AtomicLongArray(SLOTS);
+
+    public String ofCart(Long userId) {
+        return "cart-" + userId + "-" + epoch + "-" + carts.get(slotOf(userId));
+    }
+
+    public String ofProduct(Long productId) {
+        return "product-" + productId + "-" + epoch + "-" + products.get(slotOf(productId));
+    }
+
+    public void bumpCart(Long userId) {
+        bump(carts, userId);
+    }
+
+    public void bumpProduct(Long productId) {
+        bump(products, productId);
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    /*
+    commit 전에 올리면 그 사이에 이전 내용을 새 ETag 로 응답할 수 있으므로, 트랜잭션 안이라면 끝난 뒤에 올린다.
+    컨트롤러는 서비스를 호출하기 전에 ETag 를 구하므로, 변경이 보이는 시점과 버전이 오르는 시점 사이의 응답은 다음 요청에서 다시 받아간다.
+     */
+    private static void bump(AtomicLongArray versions, Long id) {
+        int slot = slotOf(id);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versions.incrementAndGet(slot);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                versions.incrementAndGet(slot);
+            }
+        });
+    }
+
+    private static int slotOf(Long id) {
+        return Long.hashCode(id) & (SLOTS - 1);
+    }
+}
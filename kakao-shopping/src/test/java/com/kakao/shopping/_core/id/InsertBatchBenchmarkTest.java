@@ -0,0 +1,126 @@
+package com.kakao.shopping._core.id;
+
+import com.kakao.shopping.domain.Cart;
+import com.kakao.shopping.domain.Product;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.user.UserRegisterRequest;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.repository.ProductRepository;
+import com.kakao.shopping.service.OrderService;
+import com.kakao.shopping.service.UserAccountService;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+-Dbenchmark=true 로 실행할 때만 동작한다.
+50 줄짜리 주문을 넣을 때 Hibernate 가 준비한 JDBC statement 수를 id 를 미리 발급하는 현재 방식(batch_size 50)과
+IDENTITY 방식에 해당하는 한 줄씩 insert(session batch size 1)로 각각 세어 비교한다.
+IDENTITY 는 insert 할 때 DB 가 id 를 정하므로 Hibernate 가 batch 로 묶지 못하고 row 마다 한 번씩 DB 에 다녀온다.
+ */
+@DisplayName("insert batch Benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+public class InsertBatchBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(InsertBatchBenchmarkTest.class);
+    private static final int ORDER_LINES = 50;
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private final OrderService orderService;
+    private final UserAccountService userAccountService;
+    private final ProductRepository productRepository;
+    private final OptionRepository optionRepository;
+    private final CartRepository cartRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Statistics statistics;
+
+    public InsertBatchBenchmarkTest(
+            @Autowired OrderService orderService,
+            @Autowired UserAccountService userAccountService,
+            @Autowired ProductRepository productRepository,
+            @Autowired OptionRepository optionRepository,
+            @Autowired CartRepository cartRepository,
+            @Autowired TransactionTemplate transactionTemplate,
+            @Autowired EntityManager entityManager,
+            @Autowired EntityManagerFactory entityManagerFactory
+    ) {
+        this.orderService = orderService;
+        this.userAccountService = userAccountService;
+        this.productRepository = productRepository;
+        this.optionRepository = optionRepository;
+        this.cartRepository = cartRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @DisplayName("50 줄 주문의 JDBC statement 수 비교")
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @Test
+    public void order_insert_benchmark() {
+        // given
+        statistics.setStatisticsEnabled(true);
+        UserAccount identityUser = userWithCart();
+        UserAccount batchedUser = userWithCart();
+
+        // when
+        long identityStatements = countStatements(identityUser, 1);
+        long batchedStatements = countStatements(batchedUser, null);
+        statistics.setStatisticsEnabled(false);
+
+        // then
+        log.info("order lines={} : identity-style {} statements, batched {} statements", ORDER_LINES, identityStatements, batchedStatements);
+        // 주문 항목 insert 와 장바구니 delete 가 각각 50 번에서 한 번으로 줄어든다.
+        assertThat(identityStatements - batchedStatements).isGreaterThanOrEqualTo(2L * (ORDER_LINES - 1));
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    // batchSize 가 null 이면 설정된 hibernate.jdbc.batch_size 를 그대로 쓴다.
+    private long countStatements(UserAccount user, Integer batchSize) {
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            orderService.place(user);
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private UserAccount userWithCart() {
+        String email = "batch" + sequence.incrementAndGet() + "@kakao.com";
+        UserAccount user = userAccountService.register(new UserRegisterRequest("batch", email, "qwer1234!", LocalDate.of(2000, 1, 1)));
+        Product product = productRepository.findById(1L).orElseThrow();
+
+        List<ProductOption> options = new ArrayList<>();
+        for (int i = 0; i < ORDER_LINES; i++) {
+            options.add(ProductOption.of(product, "batch test " + i, 1000L, user));
+        }
+        List<Cart> carts = optionRepository.saveAll(options)
+                .stream()
+                .map(option -> Cart.builder().userAccount(user).productOption(option).quantity(1L).build())
+                .toList();
+        cartRepository.saveAll(carts);
+        return user;
+    }
+}
@@ -0,0 +1,159 @@
+package com.kakao.shopping._core.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SnowflakeIdGenerator Test")
+public class SnowflakeIdGeneratorTest {
+    private static final Logger log = LoggerFactory.getLogger(SnowflakeIdGeneratorTest.class);
+
+    @DisplayName("id 증가 테스트")
+    @Test
+    public void increasing_test() {
+        // given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+
+        // when
+        long[] ids = new long[10000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = generator.nextId();
+        }
+
+        // then
+        for (int i = 1; i < ids.length; i++) {
+            assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+        }
+    }
+
+    @DisplayName("동시 발급 중복 테스트")
+    @Test
+    public void concurrent_unique_test() throws Exception {
+        // given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                List<Long> ids = new ArrayList<>();
+                for (int j = 0; j < 5000; j++) {
+                    ids.add(generator.nextId());
+                }
+                return ids;
+            }));
+        }
+        Set<Long> ids = new HashSet<>();
+        for (Future<List<Long>> future : futures) {
+            ids.addAll(future.get());
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(ids).hasSize(8 * 5000);
+    }
+
+    @DisplayName("node 별 중복 테스트")
+    @Test
+    public void node_unique_test() {
+        // given
+        long now = System.currentTimeMillis();
+        SnowflakeIdGenerator first = new FixedClockGenerator(1, now);
+        SnowflakeIdGenerator second = new FixedClockGenerator(2, now);
+
+        // when
+        long firstId = first.nextId();
+        long secondId = second.nextId();
+
+        // then
+        assertThat(firstId).isNotEqualTo(secondId);
+    }
+
+    @DisplayName("node id 범위 테스트")
+    @Test
+    public void node_range_test() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(32)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @DisplayName("JavaScript 안전 정수 범위 테스트")
+    @Test
+    public void safe_integer_test() {
+        // given
+        long lastMillis = Instant.parse("2023-01-01T00:00:00Z").toEpochMilli() + (1L << 41) - 1;
+        SnowflakeIdGenerator generator = new FixedClockGenerator(31, lastMillis);
+
+        // when
+        long firstId = generator.nextId();
+        long lastId = firstId;
+        for (int i = 0; i < 127; i++) {
+            lastId = generator.nextId();
+        }
+
+        // then
+        assertThat(firstId).isGreaterThan(0L);
+        assertThat(lastId).isLessThanOrEqualTo((1L << 53) - 1);
+    }
+
+    /*
+    JMH 대신 -Dbenchmark=true 로 실행할 때만 동작하는 간단한 처리량 측정.
+    node 당 ms 마다 128 개까지 발급하므로 초당 128,000 개 부근에서 멈추는지 확인한다.
+     */
+    @DisplayName("id 발급 처리량 측정")
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @Test
+    public void throughput_benchmark() throws Exception {
+        for (int threads : new int[]{1, 8}) {
+            // given
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            List<Future<Long>> futures = new ArrayList<>();
+
+            // when
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    long count = 0;
+                    while (System.nanoTime() < deadline) {
+                        generator.nextId();
+                        count++;
+                    }
+                    return count;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> future : futures) {
+                total += future.get();
+            }
+            executor.shutdown();
+
+            // then
+            log.info("snowflake threads={} : {} ids/s", threads, total / 2);
+            assertThat(total / 2).isLessThanOrEqualTo(128_000L + 128L);
+        }
+    }
+
+    private static class FixedClockGenerator extends SnowflakeIdGenerator {
+        private final long now;
+
+        private FixedClockGenerator(long nodeId, long now) {
+            super(nodeId);
+            this.now = now;
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return now;
+        }
+    }
+}
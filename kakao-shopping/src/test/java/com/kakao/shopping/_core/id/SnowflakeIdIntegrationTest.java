@@ -0,0 +1,77 @@
+package com.kakao.shopping._core.id;
+
+import com.kakao.shopping.domain.Cart;
+import com.kakao.shopping.domain.Product;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.order.OrderDTO;
+import com.kakao.shopping.dto.user.UserRegisterRequest;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.repository.ProductRepository;
+import com.kakao.shopping.service.OrderService;
+import com.kakao.shopping.service.UserAccountService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+test profile 은 sequential 방식을 쓰므로, snowflake 방식으로 실제 EntityManager 를 거쳐 저장되는지 따로 확인한다.
+다른 테스트의 context 와 테이블이 섞이지 않도록 별도의 H2 database 를 사용한다.
+ */
+@DisplayName("Snowflake id Integration Test")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snowflake;MODE=MySQL",
+        "spring.jpa.properties.shopping.id.strategy=snowflake"
+})
+public class SnowflakeIdIntegrationTest {
+    private final OrderService orderService;
+    private final UserAccountService userAccountService;
+    private final ProductRepository productRepository;
+    private final OptionRepository optionRepository;
+    private final CartRepository cartRepository;
+
+    public SnowflakeIdIntegrationTest(
+            @Autowired OrderService orderService,
+            @Autowired UserAccountService userAccountService,
+            @Autowired ProductRepository productRepository,
+            @Autowired OptionRepository optionRepository,
+            @Autowired CartRepository cartRepository
+    ) {
+        this.orderService = orderService;
+        this.userAccountService = userAccountService;
+        this.productRepository = productRepository;
+        this.optionRepository = optionRepository;
+        this.cartRepository = cartRepository;
+    }
+
+    @DisplayName("snowflake id 로 저장하고 주문 test")
+    @Test
+    public void persist_test() {
+        // given
+        UserAccount user = userAccountService.register(new UserRegisterRequest("snowflake", "snowflake@kakao.com", "qwer1234!", LocalDate.of(2000, 1, 1)));
+        Product product = productRepository.findAll().get(0);
+        ProductOption option = optionRepository.save(ProductOption.of(product, "snowflake test", 1000L, user));
+        Cart cart = cartRepository.save(Cart.builder().userAccount(user).productOption(option).quantity(2L).build());
+
+        // when
+        OrderDTO order = orderService.save(user);
+
+        // then
+        // sequential 방식이라면 1 부터 발급되므로, 시간 bit 가 들어간 큰 값인지와 JSON 숫자로 안전한 범위인지 함께 확인한다.
+        assertThat(List.of(user.getId(), option.getId(), cart.getId(), order.id()))
+                .allSatisfy(id -> assertThat(id).isGreaterThan(1L << 20).isLessThanOrEqualTo((1L << 53) - 1))
+                .doesNotHaveDuplicates();
+        assertThat(orderService.findById(order.id(), user).products()).hasSize(1);
+    }
+}
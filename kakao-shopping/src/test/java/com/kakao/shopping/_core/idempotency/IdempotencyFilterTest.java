@@ -0,0 +1,198 @@
+package com.kakao.shopping._core.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kakao.shopping._core.security.CustomUserDetails;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.cart.request.CartInsertRequest;
+import com.kakao.shopping.dto.user.UserRegisterRequest;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.service.UserAccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@DisplayName("IdempotencyFilter Test")
+@AutoConfigureMockMvc
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@ActiveProfiles("test")
+public class IdempotencyFilterTest {
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private final MockMvc mockMvc;
+    private final IdempotencyFilter idempotencyFilter;
+    private final ObjectMapper objectMapper;
+    private final UserAccountService userAccountService;
+    private final CartRepository cartRepository;
+    private UserAccount userAccount;
+
+    public IdempotencyFilterTest(
+            @Autowired MockMvc mockMvc,
+            @Autowired IdempotencyFilter idempotencyFilter,
+            @Autowired ObjectMapper objectMapper,
+            @Autowired UserAccountService userAccountService,
+            @Autowired CartRepository cartRepository
+    ) {
+        this.mockMvc = mockMvc;
+        this.idempotencyFilter = idempotencyFilter;
+        this.objectMapper = objectMapper;
+        this.userAccountService = userAccountService;
+        this.cartRepository = cartRepository;
+    }
+
+    // 장바구니 수량으로 처리 횟수를 확인하므로 빈 장바구니를 가진 사용자를 매번 새로 만든다.
+    @BeforeEach
+    public void setUp() {
+        String email = "idempotency" + sequence.incrementAndGet() + "@kakao.com";
+        userAccount = userAccountService.register(new UserRegisterRequest("idempotency", email, "qwer1234!", LocalDate.of(2000, 1, 1)));
+    }
+
+    @DisplayName("같은 key 의 요청을 다시 보내면 처리하지 않고 저장된 응답을 돌려준다.")
+    @Test
+    public void replay_test() throws Exception {
+        // given
+        MockHttpServletResponse first = insertCart("replay", 10L, 2L);
+
+        // when
+        MockHttpServletResponse second = insertCart("replay", 10L, 2L);
+
+        // then
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(second.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(totalQuantity()).isEqualTo(2L);
+    }
+
+    @DisplayName("같은 key 를 다른 본문의 요청에 쓰면 409 로 응답한다.")
+    @Test
+    public void different_body_test() throws Exception {
+        // given
+        insertCart("different", 10L, 2L);
+
+        // when
+        MockHttpServletResponse response = insertCart("different", 10L, 5L);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(409);
+        assertThat(totalQuantity()).isEqualTo(2L);
+    }
+
+    @DisplayName("같은 key 의 요청이 동시에 들어와도 한 번만 처리한다.")
+    @Test
+    public void concurrent_duplicate_test() throws Exception {
+        // given
+        int requests = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MockHttpServletResponse>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < requests; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return insertCart("concurrent", 10L, 1L);
+            }));
+        }
+        start.countDown();
+
+        List<Integer> statuses = new ArrayList<>();
+        for (Future<MockHttpServletResponse> future : futures) {
+            statuses.add(future.get(30, TimeUnit.SECONDS).getStatus());
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(statuses).containsOnly(200, 409).contains(200);
+        assertThat(totalQuantity()).isEqualTo(1L);
+    }
+
+    @DisplayName("보관한 본문을 ReadListener 로도 끝까지 읽을 수 있다.")
+    @Test
+    public void read_listener_test() throws Exception {
+        // given
+        byte[] body = objectMapper.writeValueAsBytes(List.of(new CartInsertRequest(10L, 1L)));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/cart");
+        request.setServletPath("/cart");
+        request.addHeader(IdempotencyFilter.HEADER, "listener");
+        request.setContent(body);
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+
+        // when
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(new CustomUserDetails(userAccount), null, List.of())
+        );
+        try {
+            idempotencyFilter.doFilter(request, new MockHttpServletResponse(), (filteredRequest, filteredResponse) -> {
+                ServletInputStream inputStream = filteredRequest.getInputStream();
+                inputStream.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        events.add("data");
+                        while (inputStream.isReady() && !inputStream.isFinished()) {
+                            read.write(inputStream.read());
+                        }
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        events.add("done");
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        events.add("error");
+                    }
+                });
+            });
+        }
+        finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        // then
+        assertThat(events).containsExactly("data", "done");
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(new String(body, StandardCharsets.UTF_8));
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private MockHttpServletResponse insertCart(String key, Long optionId, Long quantity) throws Exception {
+        String requestBody = objectMapper.writeValueAsString(List.of(new CartInsertRequest(optionId, quantity)));
+        return mockMvc.perform(
+                post("/cart")
+                        .with(user(new CustomUserDetails(userAccount)))
+                        .header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody)
+        ).andReturn().getResponse();
+    }
+
+    private Long totalQuantity() {
+        return cartRepository.summarizeByUserAccountId(userAccount.getId()).getTotalQuantity();
+    }
+}
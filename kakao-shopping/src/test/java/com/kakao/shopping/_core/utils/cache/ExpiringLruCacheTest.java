@@ -0,0 +1,64 @@
+package com.kakao.shopping._core.utils.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ExpiringLruCache Test")
+public class ExpiringLruCacheTest {
+    @DisplayName("조회 성공/실패 집계 테스트")
+    @Test
+    public void hit_miss_test() {
+        // given
+        ExpiringLruCache<Long, String> cache = new ExpiringLruCache<>(10, Duration.ofMinutes(1));
+        cache.put(1L, "a");
+
+        // when
+        String hit = cache.get(1L);
+        String miss = cache.get(2L);
+
+        // then
+        assertThat(hit).isEqualTo("a");
+        assertThat(miss).isNull();
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(1);
+    }
+
+    @DisplayName("크기 제한 제거 테스트")
+    @Test
+    public void size_eviction_test() {
+        // given
+        ExpiringLruCache<Long, String> cache = new ExpiringLruCache<>(2, Duration.ofMinutes(1));
+        cache.put(1L, "a");
+        cache.put(2L, "b");
+        cache.get(1L);
+
+        // when
+        cache.put(3L, "c");
+
+        // then
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.get(1L)).isEqualTo("a");
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.evictions()).isEqualTo(1);
+    }
+
+    @DisplayName("만료 제거 테스트")
+    @Test
+    public void expiry_test() throws InterruptedException {
+        // given
+        ExpiringLruCache<Long, String> cache = new ExpiringLruCache<>(10, Duration.ofMillis(10));
+        cache.put(1L, "a");
+
+        // when
+        Thread.sleep(30);
+
+        // then
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.evictions()).isEqualTo(1);
+    }
+}
@@ -1,37 +1,71 @@
 package com.kakao.shopping.domain.cart;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kakao.shopping._core.security.CustomUserDetails;
+import com.kakao.shopping.domain.Cart;
+import com.kakao.shopping.domain.Product;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
 import com.kakao.shopping.dto.cart.request.CartDeleteRequest;
 import com.kakao.shopping.dto.cart.request.CartInsertRequest;
 import com.kakao.shopping.dto.cart.request.CartUpdateRequest;
+import com.kakao.shopping.dto.product.request.OptionUpdateRequest;
+import com.kakao.shopping.dto.product.request.ProductUpdateRequest;
+import com.kakao.shopping.dto.user.UserRegisterRequest;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.repository.ProductRepository;
+import com.kakao.shopping.service.UserAccountService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @DisplayName("Cart Controller Test")
 @AutoConfigureMockMvc
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@ActiveProfiles("test")
 public class CartControllerTest {
+    private static final AtomicLong sequence = new AtomicLong();
+
     private final MockMvc mockMvc;
     private final ObjectMapper objectMapper;
+    private final UserAccountService userAccountService;
+    private final ProductRepository productRepository;
+    private final OptionRepository optionRepository;
+    private final CartRepository cartRepository;
 
     public CartControllerTest(
             @Autowired MockMvc mockMvc,
-            @Autowired ObjectMapper objectMapper
+            @Autowired ObjectMapper objectMapper,
+            @Autowired UserAccountService userAccountService,
+            @Autowired ProductRepository productRepository,
+            @Autowired OptionRepository optionRepository,
+            @Autowired CartRepository cartRepository
     ) {
         this.mockMvc = mockMvc;
         this.objectMapper = objectMapper;
+        this.userAccountService = userAccountService;
+        this.productRepository = productRepository;
+        this.optionRepository = optionRepository;
+        this.cartRepository = cartRepository;
     }
 
     @DisplayName("GET /cart : success")
@@ -107,4 +141,102 @@ public class CartControllerTest {
         // then
         resultActions.andExpect(jsonPath("$.success").value("true"));
     }
+
+    @DisplayName("GET /cart : 장바구니가 바뀌지 않았다면 304")
+    @WithUserDetails(value = "moon@naver.com")
+    @Test
+    public void find_cart_not_modified_test() throws Exception {
+        // given
+        String eTag = mockMvc.perform(get("/cart")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when
+        ResultActions resultActions = mockMvc.perform(
+                get("/cart")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+        );
+
+        // then
+        assertThat(eTag).isNotNull();
+        resultActions.andExpect(status().isNotModified());
+    }
+
+    @DisplayName("GET /cart : 담은 옵션의 이름이 바뀌면 ETag 가 바뀐다.")
+    @Test
+    public void find_cart_option_renamed_test() throws Exception {
+        // given
+        UserAccount userAccount = register();
+        ProductOption option = optionWithCart(userAccount);
+        String eTag = findCartETag(userAccount);
+        String requestBody = objectMapper.writeValueAsString(new OptionUpdateRequest("renamed option", option.getPrice()));
+        mockMvc.perform(
+                put("/product/option/" + option.getId())
+                        .with(user(new CustomUserDetails(userAccount)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody)
+        ).andExpect(jsonPath("$.success").value("true"));
+
+        // when
+        ResultActions resultActions = mockMvc.perform(
+                get("/cart")
+                        .with(user(new CustomUserDetails(userAccount)))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+        );
+
+        // then
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.response.products[0].carts[0].option.name").value("renamed option"));
+        assertThat(resultActions.andReturn().getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag);
+    }
+
+    @DisplayName("GET /cart : 담은 상품의 이름이 바뀌면 ETag 가 바뀐다.")
+    @Test
+    public void find_cart_product_renamed_test() throws Exception {
+        // given
+        UserAccount userAccount = register();
+        ProductOption option = optionWithCart(userAccount);
+        String eTag = findCartETag(userAccount);
+        Product product = option.getProduct();
+        String requestBody = objectMapper.writeValueAsString(
+                new ProductUpdateRequest("renamed product", product.getDescription(), product.getImage(), product.getPrice())
+        );
+        mockMvc.perform(
+                put("/product/" + product.getId())
+                        .with(user(new CustomUserDetails(userAccount)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody)
+        ).andExpect(jsonPath("$.success").value("true"));
+
+        // when
+        ResultActions resultActions = mockMvc.perform(
+                get("/cart")
+                        .with(user(new CustomUserDetails(userAccount)))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+        );
+
+        // then
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.response.products[0].name").value("renamed product"));
+        assertThat(resultActions.andReturn().getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag);
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private UserAccount register() {
+        String email = "cartetag" + sequence.incrementAndGet() + "@kakao.com";
+        return userAccountService.register(new UserRegisterRequest("cartetag", email, "qwer1234!", LocalDate.of(2000, 1, 1)));
+    }
+
+    // 다른 테스트가 보는 상품 이름을 바꾸지 않도록 사용자가 직접 등록한 상품과 옵션을 장바구니에 담는다.
+    private ProductOption optionWithCart(UserAccount userAccount) {
+        Product product = productRepository.save(Product.of("etag product", "", "", 1000L, userAccount));
+        ProductOption option = optionRepository.save(ProductOption.of(product, "etag option", 1000L, userAccount));
+        cartRepository.save(Cart.builder().userAccount(userAccount).productOption(option).quantity(1L).build());
+        return option;
+    }
+
+    private String findCartETag(UserAccount userAccount) throws Exception {
+        return mockMvc.perform(
+                get("/cart").with(user(new CustomUserDetails(userAccount)))
+        ).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
 }
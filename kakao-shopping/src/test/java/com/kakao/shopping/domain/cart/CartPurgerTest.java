@@ -0,0 +1,125 @@
+package com.kakao.shopping.domain.cart;
+
+import com.kakao.shopping.domain.Cart;
+import com.kakao.shopping.domain.Product;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.user.UserRegisterRequest;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.repository.ProductRepository;
+import com.kakao.shopping.service.CartPurger;
+import com.kakao.shopping.service.CartStore;
+import com.kakao.shopping.service.CartSummaryCache;
+import com.kakao.shopping.service.UserAccountService;
+import com.kakao.shopping.service.VersionStamps;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/*
+CartStore 를 켠 context 에서 chunk 를 나누어 삭제할 때, 메모리에만 있던 변경이 삭제보다 먼저 반영되는지 확인한다.
+CartStoreTest 와 같은 설정을 사용하므로 context 와 H2 database 를 함께 쓴다.
+ */
+@DisplayName("CartPurger Test")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cartstore;MODE=MySQL",
+        "shopping.cart.store.enabled=true",
+        "shopping.cart.store.max-users=2",
+        "shopping.cart.store.flush-interval-ms=3600000"
+})
+public class CartPurgerTest {
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final Duration AGE = Duration.ofDays(90);
+    private static final int CHUNK_SIZE = 2;
+
+    private final CartStore cartStore;
+    private final UserAccountService userAccountService;
+    private final ProductRepository productRepository;
+    private final OptionRepository optionRepository;
+    private final CartRepository cartRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CartPurger cartPurger;
+
+    public CartPurgerTest(
+            @Autowired CartStore cartStore,
+            @Autowired UserAccountService userAccountService,
+            @Autowired ProductRepository productRepository,
+            @Autowired OptionRepository optionRepository,
+            @Autowired CartRepository cartRepository,
+            @Autowired CartSummaryCache cartSummaryCache,
+            @Autowired VersionStamps versionStamps,
+            @Autowired TransactionTemplate transactionTemplate,
+            @Autowired JdbcTemplate jdbcTemplate
+    ) {
+        this.cartStore = cartStore;
+        this.userAccountService = userAccountService;
+        this.productRepository = productRepository;
+        this.optionRepository = optionRepository;
+        this.cartRepository = cartRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // chunk 가 여러 번 돌도록 chunk 크기를 작게 두고, 테스트가 기다리지 않도록 chunk 사이에 쉬지 않는다.
+        this.cartPurger = new CartPurger(
+                cartRepository, cartStore, cartSummaryCache, versionStamps, transactionTemplate, meterRegistry,
+                AGE, CHUNK_SIZE, Duration.ZERO
+        );
+    }
+
+    @DisplayName("여러 chunk 에 걸쳐 오래된 장바구니를 지우고, 메모리에서 방금 바꾼 장바구니는 반영한 뒤 남긴다.")
+    @Test
+    public void purge_test() {
+        // given
+        UserAccount seller = register();
+        Product product = productRepository.findById(1L).orElseThrow();
+        ProductOption option = optionRepository.save(ProductOption.of(product, "purge test", 1000L, seller));
+
+        List<Cart> carts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            carts.add(cartRepository.save(Cart.builder().userAccount(register()).productOption(option).quantity(1L).build()));
+        }
+        carts.forEach(cart -> jdbcTemplate.update(
+                "update cart set modified_at = ? where id = ?", LocalDateTime.now().minus(AGE).minusDays(1), cart.getId()
+        ));
+        // 두 번째 chunk 에 들어가는 장바구니를 메모리에서만 바꿔 둔다.
+        Cart edited = carts.get(2);
+        cartStore.updateQuantities(edited.getUserAccount().getId(), Map.of(edited.getId(), 7L));
+
+        // when
+        cartPurger.purge();
+
+        // then
+        assertThat(meterRegistry.counter("cart.purge.scanned").count()).isGreaterThan(CHUNK_SIZE);
+        assertThat(meterRegistry.counter("cart.purge.deleted").count()).isEqualTo(4.0);
+        assertThat(cartRepository.findAllById(carts.stream().map(Cart::getId).toList()))
+                .extracting(Cart::getId, Cart::getQuantity)
+                .containsExactly(tuple(edited.getId(), 7L));
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private UserAccount register() {
+        String email = "purge" + sequence.incrementAndGet() + "@kakao.com";
+        return userAccountService.register(new UserRegisterRequest("purge", email, "qwer1234!", LocalDate.of(2000, 1, 1)));
+    }
+}
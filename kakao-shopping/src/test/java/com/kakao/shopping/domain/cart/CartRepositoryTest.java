@@ -1,11 +1,15 @@
 package com.kakao.shopping.domain.cart;
 
+import com.kakao.shopping._core.id.IdGenerators;
 import com.kakao.shopping._core.security.CustomUserDetails;
 import com.kakao.shopping.domain.Cart;
 import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
 import com.kakao.shopping.dto.user.UserLoginRequest;
+import com.kakao.shopping.dto.user.UserRegisterRequest;
 import com.kakao.shopping.repository.CartRepository;
 import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.service.UserAccountService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,27 +18,43 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DisplayName("Cart Repository Test")
 @SpringBootTest
+@ActiveProfiles("test")
 public class CartRepositoryTest {
+    private static final AtomicLong sequence = new AtomicLong();
+
     private final CartRepository cartRepository;
     private final OptionRepository optionRepository;
     private final AuthenticationManager authenticationManager;
+    private final UserAccountService userAccountService;
+    private final TransactionTemplate transactionTemplate;
     private CustomUserDetails userDetails;
 
     public CartRepositoryTest(
             @Autowired CartRepository cartRepository,
             @Autowired OptionRepository optionRepository,
-            @Autowired AuthenticationManager authenticationManager
+            @Autowired AuthenticationManager authenticationManager,
+            @Autowired UserAccountService userAccountService,
+            @Autowired TransactionTemplate transactionTemplate
     ) {
         this.cartRepository = cartRepository;
         this.optionRepository = optionRepository;
         this.authenticationManager = authenticationManager;
+        this.userAccountService = userAccountService;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @BeforeEach
@@ -51,7 +71,17 @@ public class CartRepositoryTest {
     public void insert_test() {
         // given
         long previous_count = cartRepository.count();
-        ProductOption option = optionRepository.findById(1L).orElseThrow();
+        // (user, option) 은 unique 이므로 아직 장바구니에 담기지 않은 옵션을 고른다.
+        Set<Long> optionIdsInCart = cartRepository.findAllByUserAccountId(userDetails.getUserAccount().getId())
+                .orElse(List.of())
+                .stream()
+                .map(cart -> cart.getProductOption().getId())
+                .collect(Collectors.toSet());
+        ProductOption option = optionRepository.findAll()
+                .stream()
+                .filter(candidate -> !optionIdsInCart.contains(candidate.getId()))
+                .findFirst()
+                .orElseThrow();
         Long quantity = 5L;
         Cart cart = Cart.builder()
                 .userAccount(userDetails.getUserAccount())
@@ -115,4 +145,51 @@ public class CartRepositoryTest {
         // then
         assertThat(cartRepository.count()).isEqualTo(previous_count - 1);
     }
+
+    @DisplayName("upsert insert test")
+    @Test
+    public void upsert_insert_test() {
+        // given
+        UserAccount user = register();
+
+        // when
+        upsert(user, 1L, 2L, 1000L);
+
+        // then
+        List<Cart> carts = cartRepository.findAllByUserAccountId(user.getId()).orElseThrow();
+        assertThat(carts).hasSize(1);
+        assertThat(carts.get(0).getQuantity()).isEqualTo(2L);
+        assertThat(carts.get(0).getPrice()).isEqualTo(2000L);
+    }
+
+    @DisplayName("upsert 시 이미 담긴 옵션은 수량을 늘리고 새 단가로 다시 계산한다.")
+    @Test
+    public void upsert_increment_test() {
+        // given
+        UserAccount user = register();
+        upsert(user, 1L, 2L, 1000L);
+
+        // when
+        upsert(user, 1L, 3L, 1500L);
+
+        // then
+        List<Cart> carts = cartRepository.findAllByUserAccountId(user.getId()).orElseThrow();
+        assertThat(carts).hasSize(1);
+        assertThat(carts.get(0).getQuantity()).isEqualTo(5L);
+        assertThat(carts.get(0).getPrice()).isEqualTo(7500L);
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    // upsert 는 장바구니가 비어 있는 사용자로 확인해야 하므로 매번 새 사용자를 만든다.
+    private UserAccount register() {
+        String email = "upsert" + sequence.incrementAndGet() + "@kakao.com";
+        return userAccountService.register(new UserRegisterRequest("upsert", email, "qwer1234!", LocalDate.of(2000, 1, 1)));
+    }
+
+    private void upsert(UserAccount user, Long optionId, Long quantity, Long unitPrice) {
+        transactionTemplate.executeWithoutResult(status -> cartRepository.upsert(
+                IdGenerators.of(Cart.class).nextId(), user.getId(), optionId, quantity, unitPrice, LocalDateTime.now()
+        ));
+    }
 }
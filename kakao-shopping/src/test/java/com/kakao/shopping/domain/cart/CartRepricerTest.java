@@ -0,0 +1,139 @@
+package com.kakao.shopping.domain.cart;
+
+import com.kakao.shopping.domain.Cart;
+import com.kakao.shopping.domain.Product;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.user.UserRegisterRequest;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.repository.ProductRepository;
+import com.kakao.shopping.service.CartRepricer;
+import com.kakao.shopping.service.CartStore;
+import com.kakao.shopping.service.CartSummaryCache;
+import com.kakao.shopping.service.UserAccountService;
+import com.kakao.shopping.service.VersionStamps;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("CartRepricer Test")
+@SpringBootTest
+@ActiveProfiles("test")
+public class CartRepricerTest {
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final int CHUNK_SIZE = 2;
+
+    private final UserAccountService userAccountService;
+    private final ProductRepository productRepository;
+    private final OptionRepository optionRepository;
+    private final CartRepository cartRepository;
+    private final CartSummaryCache cartSummaryCache;
+    private final CartRepricer cartRepricer;
+
+    public CartRepricerTest(
+            @Autowired UserAccountService userAccountService,
+            @Autowired ProductRepository productRepository,
+            @Autowired OptionRepository optionRepository,
+            @Autowired CartRepository cartRepository,
+            @Autowired CartStore cartStore,
+            @Autowired CartSummaryCache cartSummaryCache,
+            @Autowired VersionStamps versionStamps,
+            @Autowired TransactionTemplate transactionTemplate
+    ) {
+        this.userAccountService = userAccountService;
+        this.productRepository = productRepository;
+        this.optionRepository = optionRepository;
+        this.cartRepository = cartRepository;
+        this.cartSummaryCache = cartSummaryCache;
+        // @Async 를 거치지 않고 바로 실행되도록 bean 대신 직접 만들고, chunk 가 여러 번 돌도록 chunk 크기를 작게 둔다.
+        this.cartRepricer = new CartRepricer(
+                cartRepository, optionRepository, cartStore, cartSummaryCache, versionStamps, transactionTemplate, CHUNK_SIZE
+        );
+    }
+
+    @DisplayName("옵션 가격이 바뀌면 여러 chunk 에 걸쳐 그 옵션을 담은 장바구니의 price 와 요약을 다시 계산한다.")
+    @Test
+    public void reprice_test() {
+        // given
+        UserAccount seller = register();
+        Product product = productRepository.findById(1L).orElseThrow();
+        ProductOption option = optionRepository.save(ProductOption.of(product, "reprice test", 1000L, seller));
+
+        List<Cart> carts = new ArrayList<>();
+        for (int i = 0; i < CHUNK_SIZE * 2 + 1; i++) {
+            UserAccount user = register();
+            carts.add(cartRepository.save(Cart.builder().userAccount(user).productOption(option).quantity(2L).build()));
+            cartSummaryCache.find(user.getId());
+        }
+        ProductOption current = optionRepository.findById(option.getId()).orElseThrow();
+        optionRepository.save(current.updatePrice(seller, 1500L));
+
+        // when
+        cartRepricer.reprice(option.getId());
+
+        // then
+        assertThat(cartRepository.findAllById(carts.stream().map(Cart::getId).toList()))
+                .hasSize(carts.size())
+                .extracting(Cart::getPrice)
+                .containsOnly(3000L);
+        assertThat(carts).allSatisfy(cart ->
+                assertThat(cartSummaryCache.find(cart.getUserAccount().getId()).totalPrice()).isEqualTo(3000L)
+        );
+    }
+
+    @DisplayName("chunk 처리 중 실패해도 예외를 밖으로 던지지 않고 메모리 저장소의 장바구니를 버린다.")
+    @Test
+    public void reprice_failure_test() {
+        // given
+        Long optionId = 1L;
+        CartRepository failingCartRepository = mock(CartRepository.class);
+        OptionRepository stubOptionRepository = mock(OptionRepository.class);
+        CartStore cartStore = mock(CartStore.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+        );
+        when(failingCartRepository.findIdsByProductOptionIdAfter(eq(optionId), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(stubOptionRepository.findPriceById(optionId)).thenReturn(Optional.of(1500L));
+        when(failingCartRepository.updatePriceByIdIn(anyCollection(), eq(1500L)))
+                .thenThrow(new IllegalStateException("update failed"));
+        CartRepricer failingRepricer = new CartRepricer(
+                failingCartRepository, stubOptionRepository, cartStore,
+                mock(CartSummaryCache.class), mock(VersionStamps.class), transactionTemplate, CHUNK_SIZE
+        );
+
+        // when, then
+        assertThatCode(() -> failingRepricer.reprice(optionId)).doesNotThrowAnyException();
+        verify(cartStore).invalidateOption(optionId);
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private UserAccount register() {
+        String email = "reprice" + sequence.incrementAndGet() + "@kakao.com";
+        return userAccountService.register(new UserRegisterRequest("reprice", email, "qwer1234!", LocalDate.of(2000, 1, 1)));
+    }
+}
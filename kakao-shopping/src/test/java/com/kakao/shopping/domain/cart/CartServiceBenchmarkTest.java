@@ -0,0 +1,161 @@
+package com.kakao.shopping.domain.cart;
+
+import com.kakao.shopping.domain.Cart;
+import com.kakao.shopping.domain.Product;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.cart.request.CartUpdateRequest;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.service.CartService;
+import com.kakao.shopping.service.CartStore;
+import com.kakao.shopping.service.CartSummaryCache;
+import com.kakao.shopping.service.VersionStamps;
+import com.kakao.shopping.dto.cart.CartDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/*
+JMH 대신 -Dbenchmark=true 로 실행할 때만 동작하는 간단한 측정.
+DB 시간을 빼고 CartService 의 조립 비용만 보도록 repository 를 mock 으로 두고, 장바구니 10 ~ 1,000 줄에서 한 줄당 시간을 기록한다.
+JMH 는 별도의 plugin 과 source set 이 필요한데, 여기서는 줄 수에 따라 한 줄당 시간이 늘어나는지만 보면 되므로 nanoTime 반복으로 충분하다.
+시간은 실행하는 기기에 따라 달라지므로 검사하지 않고 기록만 남긴다.
+GET /cart 조립의 할당량 검사는 빠르므로 -Dbenchmark 없이도 항상 실행한다.
+ */
+@DisplayName("CartService Benchmark")
+public class CartServiceBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(CartServiceBenchmarkTest.class);
+    private static final int[] CART_SIZES = {10, 100, 1_000};
+    private static final int OPTIONS_PER_PRODUCT = 10;
+    // 한 줄에 옵션/아이템 DTO 두 개와 상품 묶음 몫의 할당만 있으면 충분히 들어오는 값이다.
+    private static final long MAX_ALLOCATED_BYTES_PER_LINE = 512;
+
+    private final CartRepository cartRepository = stub(CartRepository.class);
+    private final CartService cartService = new CartService(
+            cartRepository,
+            stub(OptionRepository.class),
+            stub(CartStore.class),
+            stub(CartSummaryCache.class),
+            stub(VersionStamps.class)
+    );
+    private final UserAccount user = UserAccount.builder().id(1L).name("benchmark").email("benchmark@kakao.com").build();
+
+    @DisplayName("장바구니 수량 변경 시간 측정")
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @Test
+    public void update_benchmark() {
+        when(cartRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        for (int size : CART_SIZES) {
+            // given
+            List<Cart> carts = carts(size);
+            List<CartUpdateRequest> requests = carts.stream()
+                    .map(cart -> new CartUpdateRequest(cart.getId(), 2L))
+                    .toList();
+            when(cartRepository.findAllByUserAccountId(anyLong())).thenReturn(Optional.of(carts));
+
+            // when
+            double nanosPerLine = measure(() -> cartService.update(requests, user)) / size;
+
+            // then
+            log.info("cart update lines={} : {} ns/line", size, String.format("%.1f", nanosPerLine));
+        }
+    }
+
+    @DisplayName("장바구니 조회 시간 측정")
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @Test
+    public void find_all_benchmark() {
+        for (int size : CART_SIZES) {
+            // given
+            when(cartRepository.findAllByUserAccountId(anyLong())).thenReturn(Optional.of(carts(size)));
+
+            // when
+            double nanosPerLine = measure(() -> cartService.findAll(user)) / size;
+
+            // then
+            log.info("cart find all lines={} : {} ns/line", size, String.format("%.1f", nanosPerLine));
+        }
+    }
+
+    @DisplayName("장바구니 조회 시 한 줄당 할당량 검사")
+    @Test
+    public void find_all_allocation_test() {
+        // given
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled());
+        int size = CART_SIZES[CART_SIZES.length - 1];
+        when(cartRepository.findAllByUserAccountId(anyLong())).thenReturn(Optional.of(carts(size)));
+        for (int i = 0; i < 1_000; i++) {
+            cartService.findAll(user);
+        }
+
+        // when
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        CartDTO cart = cartService.findAll(user);
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        // then
+        assertThat(cart.products()).hasSize(size / OPTIONS_PER_PRODUCT);
+        assertThat(allocated / size).isLessThan(MAX_ALLOCATED_BYTES_PER_LINE);
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    // OPTIONS_PER_PRODUCT 개의 옵션마다 상품 하나를 두고, 옵션마다 장바구니 한 줄을 만든다.
+    private List<Cart> carts(int size) {
+        List<Cart> carts = new ArrayList<>(size);
+        Product product = null;
+        for (long id = 1; id <= size; id++) {
+            if (product == null || id % OPTIONS_PER_PRODUCT == 1) {
+                product = Product.of("product " + id, "", "", 1000L, user);
+                ReflectionTestUtils.setField(product, "id", id);
+            }
+            ProductOption option = ProductOption.builder().id(id).product(product).name("option " + id).price(1000L).stock(10L).build();
+            carts.add(Cart.builder().id(id).userAccount(user).productOption(option).quantity(1L).build());
+        }
+        return carts;
+    }
+
+    // 수백만 번 호출해도 mock 이 호출 기록을 쌓지 않도록 한다.
+    private static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    // 1 초 동안 warm up 한 뒤 1 초 동안 반복하여 호출 한 번의 평균 시간(ns)을 구한다.
+    private static double measure(Runnable call) {
+        run(call, TimeUnit.SECONDS.toNanos(1));
+        long start = System.nanoTime();
+        long count = run(call, TimeUnit.SECONDS.toNanos(1));
+        return (double) (System.nanoTime() - start) / count;
+    }
+
+    private static long run(Runnable call, long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        long count = 0;
+        while (System.nanoTime() < deadline) {
+            call.run();
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,150 @@
+package com.kakao.shopping.domain.cart;
+
+import com.kakao.shopping.domain.Cart;
+import com.kakao.shopping.domain.Product;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.order.OrderDTO;
+import com.kakao.shopping.dto.user.UserRegisterRequest;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.repository.ProductRepository;
+import com.kakao.shopping.service.CartStore;
+import com.kakao.shopping.service.OrderService;
+import com.kakao.shopping.service.UserAccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+저장소를 켠 context 에서 메모리의 변경이 cart 테이블에 반영되는 시점을 확인한다.
+주기적인 flush 가 결과를 가리지 않도록 flush 주기를 길게 두고, max-users 를 2 로 두어 밀려나는 경우를 만든다.
+다른 테스트의 context 와 테이블이 섞이지 않도록 별도의 H2 database 를 사용한다.
+ */
+@DisplayName("CartStore Test")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cartstore;MODE=MySQL",
+        "shopping.cart.store.enabled=true",
+        "shopping.cart.store.max-users=2",
+        "shopping.cart.store.flush-interval-ms=3600000"
+})
+public class CartStoreTest {
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private final CartStore cartStore;
+    private final OrderService orderService;
+    private final UserAccountService userAccountService;
+    private final ProductRepository productRepository;
+    private final OptionRepository optionRepository;
+    private final CartRepository cartRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private ProductOption option;
+
+    public CartStoreTest(
+            @Autowired CartStore cartStore,
+            @Autowired OrderService orderService,
+            @Autowired UserAccountService userAccountService,
+            @Autowired ProductRepository productRepository,
+            @Autowired OptionRepository optionRepository,
+            @Autowired CartRepository cartRepository,
+            @Autowired JdbcTemplate jdbcTemplate
+    ) {
+        this.cartStore = cartStore;
+        this.orderService = orderService;
+        this.userAccountService = userAccountService;
+        this.productRepository = productRepository;
+        this.optionRepository = optionRepository;
+        this.cartRepository = cartRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        UserAccount seller = register();
+        Product product = productRepository.findAll().get(0);
+        option = optionRepository.save(ProductOption.of(product, "cart store test", 1000L, seller));
+    }
+
+    @DisplayName("max-users 를 넘어 밀려난 사용자의 변경도 cart 테이블에 반영한다.")
+    @Test
+    public void eviction_test() {
+        // given
+        List<Cart> carts = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            carts.add(cartOf(register(), 1L));
+        }
+        Cart evicted = carts.get(0);
+        cartStore.updateQuantities(evicted.getUserAccount().getId(), Map.of(evicted.getId(), 4L));
+
+        // when
+        carts.subList(1, carts.size()).forEach(cart -> cartStore.findAll(cart.getUserAccount().getId()));
+        cartStore.flushAll();
+
+        // then
+        assertThat(quantityOf(evicted)).isEqualTo(4L);
+        assertThat(cartStore.findAll(evicted.getUserAccount().getId()))
+                .extracting(Cart::getQuantity)
+                .containsExactly(4L);
+    }
+
+    @DisplayName("종료할 때 반영되지 않은 변경을 cart 테이블에 반영한다.")
+    @Test
+    public void shutdown_test() {
+        // given
+        Cart cart = cartOf(register(), 1L);
+        cartStore.updateQuantities(cart.getUserAccount().getId(), Map.of(cart.getId(), 3L));
+        assertThat(quantityOf(cart)).isEqualTo(1L);
+
+        // when
+        cartStore.shutdown();
+
+        // then
+        assertThat(quantityOf(cart)).isEqualTo(3L);
+    }
+
+    @DisplayName("메모리에서 바꾼 수량으로 바로 주문한다.")
+    @Test
+    public void checkout_test() {
+        // given
+        UserAccount user = register();
+        Cart cart = cartOf(user, 1L);
+        cartStore.updateQuantities(user.getId(), Map.of(cart.getId(), 4L));
+
+        // when
+        OrderDTO order = orderService.save(user);
+
+        // then
+        assertThat(order.totalPrice()).isEqualTo(4000L);
+        assertThat(optionRepository.findById(option.getId()).orElseThrow().getStock()).isEqualTo(6L);
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private UserAccount register() {
+        String email = "cartstore" + sequence.incrementAndGet() + "@kakao.com";
+        return userAccountService.register(new UserRegisterRequest("cartstore", email, "qwer1234!", LocalDate.of(2000, 1, 1)));
+    }
+
+    private Cart cartOf(UserAccount user, Long quantity) {
+        return cartRepository.save(Cart.builder().userAccount(user).productOption(option).quantity(quantity).build());
+    }
+
+    private Long quantityOf(Cart cart) {
+        return jdbcTemplate.queryForObject("select quantity from cart where id = ?", Long.class, cart.getId());
+    }
+}
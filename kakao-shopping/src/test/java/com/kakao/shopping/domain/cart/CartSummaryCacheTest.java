@@ -0,0 +1,74 @@
+package com.kakao.shopping.domain.cart;
+
+import com.kakao.shopping.dto.cart.CartSummaryDTO;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.CartRepository.CartSummary;
+import com.kakao.shopping.service.CartSummaryCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("CartSummaryCache Test")
+public class CartSummaryCacheTest {
+    private static final Long USER_ID = 1L;
+
+    private final CartRepository cartRepository = mock(CartRepository.class);
+    private final CartSummaryCache cartSummaryCache = new CartSummaryCache(cartRepository, 100);
+
+    @DisplayName("조회하는 사이에 무효화되면 읽은 값을 캐시에 넣지 않고 다음 조회에서 다시 읽는다.")
+    @Test
+    public void invalidate_while_loading_test() {
+        // given
+        CartSummary stale = summary(1L, 1L, 1000L);
+        CartSummary fresh = summary(1L, 3L, 3000L);
+        when(cartRepository.summarizeByUserAccountId(USER_ID))
+                .thenAnswer(invocation -> {
+                    // 집계 쿼리가 끝나기 전에 다른 요청이 장바구니를 바꾸고 무효화한 상황
+                    cartSummaryCache.invalidate(USER_ID);
+                    return stale;
+                })
+                .thenReturn(fresh);
+
+        // when
+        CartSummaryDTO first = cartSummaryCache.find(USER_ID);
+        CartSummaryDTO second = cartSummaryCache.find(USER_ID);
+        CartSummaryDTO third = cartSummaryCache.find(USER_ID);
+
+        // then
+        assertThat(first.totalQuantity()).isEqualTo(1L);
+        assertThat(second.totalQuantity()).isEqualTo(3L);
+        assertThat(third).isEqualTo(second);
+        verify(cartRepository, times(2)).summarizeByUserAccountId(USER_ID);
+    }
+
+    @DisplayName("무효화 없이 읽은 값은 캐시에 넣고 다시 조회하지 않는다.")
+    @Test
+    public void cache_hit_test() {
+        // given
+        CartSummary summary = summary(2L, 2L, 2000L);
+        when(cartRepository.summarizeByUserAccountId(USER_ID)).thenReturn(summary);
+
+        // when
+        cartSummaryCache.find(USER_ID);
+        CartSummaryDTO cached = cartSummaryCache.find(USER_ID);
+
+        // then
+        assertThat(cached.totalPrice()).isEqualTo(2000L);
+        verify(cartRepository, times(1)).summarizeByUserAccountId(USER_ID);
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private static CartSummary summary(Long lineCount, Long totalQuantity, Long totalPrice) {
+        CartSummary summary = mock(CartSummary.class);
+        when(summary.getLineCount()).thenReturn(lineCount);
+        when(summary.getTotalQuantity()).thenReturn(totalQuantity);
+        when(summary.getTotalPrice()).thenReturn(totalPrice);
+        return summary;
+    }
+}
@@ -0,0 +1,163 @@
+package com.kakao.shopping.domain.order;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kakao.shopping._core.interceptor.CheckoutAdmissionInterceptor;
+import com.kakao.shopping._core.security.CustomUserDetails;
+import com.kakao.shopping.domain.Cart;
+import com.kakao.shopping.domain.Product;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.user.UserRegisterRequest;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.repository.ProductRepository;
+import com.kakao.shopping.service.UserAccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/*
+동시에 한 명만 입장하는 대기열을 켜고 POST /order 가 대기열을 거치는지 확인한다.
+대기열은 context 안에서 공유되므로, 각 테스트는 입장한 토큰을 모두 주문에 사용하여 자리를 비워두고 끝난다.
+다른 테스트의 context 와 테이블이 섞이지 않도록 별도의 H2 database 를 사용한다.
+ */
+@DisplayName("CheckoutQueue Test")
+@AutoConfigureMockMvc
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:checkoutqueue;MODE=MySQL",
+        "shopping.order.queue.enabled=true",
+        "shopping.order.queue.max-concurrent=1",
+        "shopping.order.queue.retry-after=3"
+})
+public class CheckoutQueueTest {
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private final MockMvc mockMvc;
+    private final ObjectMapper objectMapper;
+    private final UserAccountService userAccountService;
+    private final ProductRepository productRepository;
+    private final OptionRepository optionRepository;
+    private final CartRepository cartRepository;
+    private ProductOption option;
+
+    public CheckoutQueueTest(
+            @Autowired MockMvc mockMvc,
+            @Autowired ObjectMapper objectMapper,
+            @Autowired UserAccountService userAccountService,
+            @Autowired ProductRepository productRepository,
+            @Autowired OptionRepository optionRepository,
+            @Autowired CartRepository cartRepository
+    ) {
+        this.mockMvc = mockMvc;
+        this.objectMapper = objectMapper;
+        this.userAccountService = userAccountService;
+        this.productRepository = productRepository;
+        this.optionRepository = optionRepository;
+        this.cartRepository = cartRepository;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        UserAccount seller = register();
+        Product product = productRepository.findById(1L).orElseThrow();
+        option = optionRepository.save(ProductOption.of(product, "queue test", 1000L, seller));
+    }
+
+    @DisplayName("POST /order : 자리가 찬 동안 입장하지 못한 주문은 429 와 Retry-After 로 돌려보내고, 주문이 끝나면 다음 대기자가 입장한다.")
+    @Test
+    public void admission_test() throws Exception {
+        // given
+        UserAccount first = userWithCart();
+        UserAccount second = userWithCart();
+        JsonNode firstTicket = enqueue(first);
+        JsonNode secondTicket = enqueue(second);
+        assertThat(firstTicket.path("status").asText()).isEqualTo("ADMITTED");
+        assertThat(secondTicket.path("status").asText()).isEqualTo("WAITING");
+
+        // when
+        MockHttpServletResponse waiting = order(second, secondTicket.path("token").asText());
+        MockHttpServletResponse withoutToken = order(second, null);
+        MockHttpServletResponse admitted = order(first, firstTicket.path("token").asText());
+
+        // then
+        assertThat(waiting.getStatus()).isEqualTo(429);
+        assertThat(waiting.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        assertThat(withoutToken.getStatus()).isEqualTo(429);
+        assertThat(admitted.getStatus()).isEqualTo(200);
+
+        assertThat(findTicket(second, secondTicket.path("token").asText()).path("status").asText()).isEqualTo("ADMITTED");
+        assertThat(order(second, secondTicket.path("token").asText()).getStatus()).isEqualTo(200);
+    }
+
+    @DisplayName("POST /order : 주문이 실패해도 자리를 반납한다.")
+    @Test
+    public void release_on_failure_test() throws Exception {
+        // given
+        UserAccount emptyCart = register();
+        String token = enqueue(emptyCart).path("token").asText();
+
+        // when
+        MockHttpServletResponse failed = order(emptyCart, token);
+
+        // then
+        assertThat(failed.getStatus()).isEqualTo(400);
+        UserAccount next = userWithCart();
+        JsonNode nextTicket = enqueue(next);
+        assertThat(nextTicket.path("status").asText()).isEqualTo("ADMITTED");
+        assertThat(order(next, nextTicket.path("token").asText()).getStatus()).isEqualTo(200);
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private UserAccount register() {
+        String email = "queue" + sequence.incrementAndGet() + "@kakao.com";
+        return userAccountService.register(new UserRegisterRequest("queue", email, "qwer1234!", LocalDate.of(2000, 1, 1)));
+    }
+
+    private UserAccount userWithCart() {
+        UserAccount user = register();
+        cartRepository.save(Cart.builder().userAccount(user).productOption(option).quantity(1L).build());
+        return user;
+    }
+
+    private JsonNode enqueue(UserAccount user) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(
+                post("/order/queue").with(user(new CustomUserDetails(user)))
+        ).andReturn().getResponse();
+        return objectMapper.readTree(response.getContentAsString()).path("response");
+    }
+
+    private JsonNode findTicket(UserAccount user, String token) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(
+                get("/order/queue/{token}", token).with(user(new CustomUserDetails(user)))
+        ).andReturn().getResponse();
+        return objectMapper.readTree(response.getContentAsString()).path("response");
+    }
+
+    private MockHttpServletResponse order(UserAccount user, String token) throws Exception {
+        return mockMvc.perform(
+                token == null
+                        ? post("/order").with(user(new CustomUserDetails(user)))
+                        : post("/order").with(user(new CustomUserDetails(user))).header(CheckoutAdmissionInterceptor.HEADER, token)
+        ).andReturn().getResponse();
+    }
+}
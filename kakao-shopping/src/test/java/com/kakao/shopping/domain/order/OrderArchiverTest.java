@@ -0,0 +1,118 @@
+package com.kakao.shopping.domain.order;
+
+import com.kakao.shopping.domain.Cart;
+import com.kakao.shopping.domain.Product;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.order.OrderDTO;
+import com.kakao.shopping.dto.user.UserRegisterRequest;
+import com.kakao.shopping.repository.*;
+import com.kakao.shopping.service.OrderArchiver;
+import com.kakao.shopping.service.OrderService;
+import com.kakao.shopping.service.UserAccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OrderArchiver Test")
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderArchiverTest {
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final Duration AGE = Duration.ofDays(180);
+
+    private final OrderService orderService;
+    private final UserAccountService userAccountService;
+    private final ProductRepository productRepository;
+    private final OptionRepository optionRepository;
+    private final CartRepository cartRepository;
+    private final OrderArchiver orderArchiver;
+    private final JdbcTemplate jdbcTemplate;
+    private UserAccount user;
+    private ProductOption option;
+
+    public OrderArchiverTest(
+            @Autowired OrderService orderService,
+            @Autowired UserAccountService userAccountService,
+            @Autowired ProductRepository productRepository,
+            @Autowired OptionRepository optionRepository,
+            @Autowired CartRepository cartRepository,
+            @Autowired OrderDetailRepository orderDetailRepository,
+            @Autowired OrderItemRepository orderItemRepository,
+            @Autowired OrderDetailArchiveRepository orderDetailArchiveRepository,
+            @Autowired OrderItemArchiveRepository orderItemArchiveRepository,
+            @Autowired TransactionTemplate transactionTemplate,
+            @Autowired JdbcTemplate jdbcTemplate
+    ) {
+        this.orderService = orderService;
+        this.userAccountService = userAccountService;
+        this.productRepository = productRepository;
+        this.optionRepository = optionRepository;
+        this.cartRepository = cartRepository;
+        // batch 가 여러 번 도는지 보기 위해 batch 크기를 1 로 둔다.
+        this.orderArchiver = new OrderArchiver(
+                orderDetailRepository, orderItemRepository, orderDetailArchiveRepository, orderItemArchiveRepository,
+                transactionTemplate, AGE, 1
+        );
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        String email = "archive" + sequence.incrementAndGet() + "@kakao.com";
+        user = userAccountService.register(new UserRegisterRequest("archive", email, "qwer1234!", LocalDate.of(2000, 1, 1)));
+        Product product = productRepository.findById(1L).orElseThrow();
+        option = optionRepository.save(ProductOption.of(product, "archive test", 1000L, user));
+    }
+
+    @DisplayName("기준보다 오래된 주문만 batch 로 옮기고, 옮긴 주문도 같은 내용으로 조회한다.")
+    @Test
+    public void archive_test() {
+        // given
+        OrderDTO first = placeOrder(1L);
+        OrderDTO second = placeOrder(2L);
+        OrderDTO recent = placeOrder(3L);
+        backdate(first.id(), AGE.plusDays(1));
+        backdate(second.id(), AGE.plusDays(30));
+
+        // when
+        orderArchiver.archive();
+
+        // then
+        assertThat(count("select count(*) from order_detail where id in (?, ?)", first.id(), second.id())).isZero();
+        assertThat(count("select count(*) from order_item where order_detail_id in (?, ?)", first.id(), second.id())).isZero();
+        assertThat(count("select count(*) from order_detail_archive where id in (?, ?)", first.id(), second.id())).isEqualTo(2L);
+        assertThat(count("select count(*) from order_detail where id = ?", recent.id())).isEqualTo(1L);
+
+        assertThat(orderService.findById(first.id(), user)).isEqualTo(first);
+        assertThat(orderService.findById(second.id(), user)).isEqualTo(second);
+        assertThat(orderService.findById(recent.id(), user)).isEqualTo(recent);
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private OrderDTO placeOrder(Long quantity) {
+        cartRepository.save(Cart.builder().userAccount(user).productOption(option).quantity(quantity).build());
+        return orderService.save(user);
+    }
+
+    private void backdate(Long orderId, Duration age) {
+        jdbcTemplate.update("update order_detail set created_at = ? where id = ?", LocalDateTime.now().minus(age), orderId);
+    }
+
+    private Long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
@@ -0,0 +1,130 @@
+package com.kakao.shopping.domain.order;
+
+import com.kakao.shopping._core.errors.exception.BadRequestException;
+import com.kakao.shopping.domain.Cart;
+import com.kakao.shopping.domain.Product;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.order.OrderCancelDTO;
+import com.kakao.shopping.dto.order.request.OrderCancelRequest;
+import com.kakao.shopping.dto.user.UserRegisterRequest;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.repository.ProductRepository;
+import com.kakao.shopping.service.OrderService;
+import com.kakao.shopping.service.UserAccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("OrderService 취소 Test")
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderCancelServiceTest {
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private final OrderService orderService;
+    private final UserAccountService userAccountService;
+    private final ProductRepository productRepository;
+    private final OptionRepository optionRepository;
+    private final CartRepository cartRepository;
+    private ProductOption option;
+
+    public OrderCancelServiceTest(
+            @Autowired OrderService orderService,
+            @Autowired UserAccountService userAccountService,
+            @Autowired ProductRepository productRepository,
+            @Autowired OptionRepository optionRepository,
+            @Autowired CartRepository cartRepository
+    ) {
+        this.orderService = orderService;
+        this.userAccountService = userAccountService;
+        this.productRepository = productRepository;
+        this.optionRepository = optionRepository;
+        this.cartRepository = cartRepository;
+    }
+
+    // 다른 테스트와 재고가 섞이지 않도록 옵션(재고 10)을 매번 새로 만든다.
+    @BeforeEach
+    public void setUp() {
+        UserAccount seller = register();
+        Product product = productRepository.findById(1L).orElseThrow();
+        option = optionRepository.save(ProductOption.of(product, "cancel test", 1000L, seller));
+    }
+
+    @DisplayName("일괄 취소 시 중복된 id 는 한 번만 취소하고 재고를 돌려놓는다.")
+    @Test
+    public void cancel_all_test() {
+        // given
+        Long first = placeOrder(3L);
+        Long second = placeOrder(2L);
+
+        // when
+        OrderCancelDTO result = orderService.cancelAll(new OrderCancelRequest(List.of(first, second, first)));
+
+        // then
+        assertThat(result.cancelledCount()).isEqualTo(2);
+        assertThat(stock()).isEqualTo(10L);
+    }
+
+    @DisplayName("일괄 취소 시 이미 취소된 주문은 건너뛰고 재고를 두 번 돌려놓지 않는다.")
+    @Test
+    public void cancel_all_skip_cancelled_test() {
+        // given
+        Long first = placeOrder(3L);
+        Long second = placeOrder(2L);
+        orderService.cancelAll(new OrderCancelRequest(List.of(first)));
+
+        // when
+        OrderCancelDTO result = orderService.cancelAll(new OrderCancelRequest(List.of(first, second)));
+
+        // then
+        assertThat(result.cancelledCount()).isEqualTo(1);
+        assertThat(stock()).isEqualTo(10L);
+    }
+
+    @DisplayName("이미 취소된 주문을 다시 취소하면 실패한다.")
+    @Test
+    public void cancel_already_cancelled_test() {
+        // given
+        UserAccount user = register();
+        Long orderId = placeOrder(user, 3L);
+        orderService.cancel(orderId, user);
+
+        // when, then
+        assertThatThrownBy(() -> orderService.cancel(orderId, user))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("이미 취소된 주문입니다.");
+        assertThat(stock()).isEqualTo(10L);
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private UserAccount register() {
+        String email = "cancel" + sequence.incrementAndGet() + "@kakao.com";
+        return userAccountService.register(new UserRegisterRequest("cancel", email, "qwer1234!", LocalDate.of(2000, 1, 1)));
+    }
+
+    private Long placeOrder(Long quantity) {
+        return placeOrder(register(), quantity);
+    }
+
+    private Long placeOrder(UserAccount user, Long quantity) {
+        cartRepository.save(Cart.builder().userAccount(user).productOption(option).quantity(quantity).build());
+        return orderService.save(user).id();
+    }
+
+    private Long stock() {
+        return optionRepository.findById(option.getId()).orElseThrow().getStock();
+    }
+}
@@ -0,0 +1,191 @@
+package com.kakao.shopping.domain.order;
+
+import com.kakao.shopping._core.errors.exception.BadRequestException;
+import com.kakao.shopping._core.security.CustomUserDetails;
+import com.kakao.shopping.domain.Cart;
+import com.kakao.shopping.domain.Product;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.order.OrderCursor;
+import com.kakao.shopping.dto.order.OrderDTO;
+import com.kakao.shopping.dto.order.OrderPageDTO;
+import com.kakao.shopping.dto.order.OrderSummaryDTO;
+import com.kakao.shopping.dto.order.OrderSummaryPageDTO;
+import com.kakao.shopping.dto.user.UserRegisterRequest;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.repository.ProductRepository;
+import com.kakao.shopping.service.OrderService;
+import com.kakao.shopping.service.UserAccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("주문 내역 pagination Test")
+@AutoConfigureMockMvc
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@ActiveProfiles("test")
+public class OrderPaginationTest {
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final int ORDERS = 7;
+    private static final int PAGE_SIZE = 3;
+
+    private final MockMvc mockMvc;
+    private final OrderService orderService;
+    private final UserAccountService userAccountService;
+    private final ProductRepository productRepository;
+    private final OptionRepository optionRepository;
+    private final CartRepository cartRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private UserAccount userAccount;
+    private ProductOption option;
+
+    public OrderPaginationTest(
+            @Autowired MockMvc mockMvc,
+            @Autowired OrderService orderService,
+            @Autowired UserAccountService userAccountService,
+            @Autowired ProductRepository productRepository,
+            @Autowired OptionRepository optionRepository,
+            @Autowired CartRepository cartRepository,
+            @Autowired JdbcTemplate jdbcTemplate
+    ) {
+        this.mockMvc = mockMvc;
+        this.orderService = orderService;
+        this.userAccountService = userAccountService;
+        this.productRepository = productRepository;
+        this.optionRepository = optionRepository;
+        this.cartRepository = cartRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        String email = "page" + sequence.incrementAndGet() + "@kakao.com";
+        userAccount = userAccountService.register(new UserRegisterRequest("page", email, "qwer1234!", LocalDate.of(2000, 1, 1)));
+        Product product = productRepository.findById(1L).orElseThrow();
+        option = optionRepository.save(ProductOption.of(product, "page test", 1000L, userAccount));
+    }
+
+    @DisplayName("cursor 를 encode 한 뒤 decode 하면 같은 값이 된다.")
+    @Test
+    public void cursor_round_trip_test() {
+        // given
+        OrderCursor withNanos = new OrderCursor(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123_456_000), 42L);
+        OrderCursor withoutSeconds = new OrderCursor(LocalDateTime.of(2024, 1, 2, 3, 4), 7L);
+
+        // when, then
+        assertThat(OrderCursor.decode(withNanos.encode())).isEqualTo(withNanos);
+        assertThat(OrderCursor.decode(withoutSeconds.encode())).isEqualTo(withoutSeconds);
+    }
+
+    @DisplayName("잘못된 cursor 는 BadRequestException 으로 거절한다.")
+    @Test
+    public void cursor_malformed_test() {
+        List<String> cursors = List.of(
+                "!!!",
+                encode("not a cursor"),
+                encode("2024-01-02T03:04:05"),
+                encode("2024-01-02T03:04:05,abc"),
+                encode("yesterday,1")
+        );
+
+        assertThat(cursors).allSatisfy(cursor ->
+                assertThatThrownBy(() -> OrderCursor.decode(cursor))
+                        .isInstanceOf(BadRequestException.class)
+                        .hasMessage("잘못된 cursor 입니다.")
+        );
+    }
+
+    @DisplayName("GET /order : 잘못된 cursor 는 400")
+    @Test
+    public void find_all_malformed_cursor_test() throws Exception {
+        mockMvc.perform(
+                get("/order")
+                        .with(user(new CustomUserDetails(userAccount)))
+                        .param("cursor", encode("2024-01-02T03:04:05,abc"))
+        ).andExpect(status().isBadRequest()).andExpect(jsonPath("$.success").value("false"));
+    }
+
+    @DisplayName("created_at 이 같은 주문이 있어도 모든 페이지를 빠짐없이, 중복 없이 최신순으로 읽는다.")
+    @Test
+    public void find_all_pages_test() {
+        // given
+        List<Long> expected = placeOrdersWithTies();
+
+        // when
+        List<Long> ids = new ArrayList<>();
+        List<Long> summaryIds = new ArrayList<>();
+        int pages = 0;
+        String cursor = null;
+        do {
+            OrderPageDTO page = orderService.findAll(userAccount, cursor, PAGE_SIZE);
+            OrderSummaryPageDTO summaryPage = orderService.findAllSummaries(userAccount, cursor, PAGE_SIZE);
+            assertThat(page.orders()).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+            ids.addAll(page.orders().stream().map(OrderDTO::id).toList());
+            summaryIds.addAll(summaryPage.orders().stream().map(OrderSummaryDTO::id).toList());
+            assertThat(summaryPage.nextCursor()).isEqualTo(page.nextCursor());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // then
+        assertThat(pages).isEqualTo((ORDERS + PAGE_SIZE - 1) / PAGE_SIZE);
+        assertThat(ids).containsExactlyElementsOf(expected);
+        assertThat(summaryIds).containsExactlyElementsOf(expected);
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    /*
+    주문 ORDERS 개를 넣고 created_at 을 두 값으로만 나누어, 페이지 경계가 created_at 이 같은 주문들 사이에 오게 한다.
+    (created_at desc, id desc) 순서의 주문 id 를 반환한다.
+     */
+    private List<Long> placeOrdersWithTies() {
+        LocalDateTime newer = LocalDateTime.now().minusDays(1).withNano(0);
+        LocalDateTime older = newer.minusHours(1);
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            cartRepository.save(Cart.builder().userAccount(userAccount).productOption(option).quantity(1L).build());
+            Long orderId = orderService.save(userAccount).id();
+            jdbcTemplate.update("update order_detail set created_at = ? where id = ?", i % 2 == 0 ? newer : older, orderId);
+            orderIds.add(orderId);
+        }
+
+        List<Long> newerIds = new ArrayList<>();
+        List<Long> olderIds = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            (i % 2 == 0 ? newerIds : olderIds).add(orderIds.get(i));
+        }
+        newerIds.sort(Comparator.reverseOrder());
+        olderIds.sort(Comparator.reverseOrder());
+        List<Long> expected = new ArrayList<>(newerIds);
+        expected.addAll(olderIds);
+        return expected;
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
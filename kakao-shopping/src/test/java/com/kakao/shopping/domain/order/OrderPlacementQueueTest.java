@@ -0,0 +1,252 @@
+package com.kakao.shopping.domain.order;
+
+import com.kakao.shopping._core.errors.exception.OutOfStockException;
+import com.kakao.shopping._core.errors.exception.ServiceUnavailableException;
+import com.kakao.shopping.domain.Cart;
+import com.kakao.shopping.domain.Product;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.order.OrderDTO;
+import com.kakao.shopping.dto.user.UserRegisterRequest;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.repository.ProductRepository;
+import com.kakao.shopping.service.OrderPlacementQueue;
+import com.kakao.shopping.service.OrderService;
+import com.kakao.shopping.service.UserAccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+주문 처리 큐를 설정과 관계없이 직접 만들어 batch commit, 재고 부족 격리, batch 실패 시 개별 처리, 대기 시간 초과를 확인한다.
+ */
+@DisplayName("OrderPlacementQueue Test")
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderPlacementQueueTest {
+    private static final Logger log = LoggerFactory.getLogger(OrderPlacementQueueTest.class);
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private final OrderService orderService;
+    private final UserAccountService userAccountService;
+    private final ProductRepository productRepository;
+    private final OptionRepository optionRepository;
+    private final CartRepository cartRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ExecutorService executor = Executors.newFixedThreadPool(16);
+    private OrderPlacementQueue queue;
+    private ProductOption option;
+
+    public OrderPlacementQueueTest(
+            @Autowired OrderService orderService,
+            @Autowired UserAccountService userAccountService,
+            @Autowired ProductRepository productRepository,
+            @Autowired OptionRepository optionRepository,
+            @Autowired CartRepository cartRepository,
+            @Autowired PlatformTransactionManager transactionManager
+    ) {
+        this.orderService = orderService;
+        this.userAccountService = userAccountService;
+        this.productRepository = productRepository;
+        this.optionRepository = optionRepository;
+        this.cartRepository = cartRepository;
+        this.transactionManager = transactionManager;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        option = newOption(10L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (queue != null) {
+            queue.stop();
+        }
+        executor.shutdownNow();
+    }
+
+    @DisplayName("batch commit 테스트")
+    @Test
+    public void batch_commit_test() throws Exception {
+        // given
+        queue = newQueue(new TransactionTemplate(transactionManager), Duration.ofMillis(50), Duration.ofSeconds(10));
+        List<UserAccount> users = newUsers(5, 1L);
+
+        // when
+        List<Future<OrderDTO>> futures = placeAll(users);
+
+        // then
+        for (Future<OrderDTO> future : futures) {
+            assertThat(future.get().id()).isNotNull();
+        }
+        assertThat(stock()).isEqualTo(5L);
+    }
+
+    @DisplayName("batch 안의 재고 부족 격리 테스트")
+    @Test
+    public void out_of_stock_test() throws Exception {
+        // given
+        queue = newQueue(new TransactionTemplate(transactionManager), Duration.ofMillis(50), Duration.ofSeconds(10));
+        List<UserAccount> users = newUsers(3, 4L);
+
+        // when
+        List<Future<OrderDTO>> futures = placeAll(users);
+
+        // then
+        int placed = 0;
+        int outOfStock = 0;
+        for (Future<OrderDTO> future : futures) {
+            try {
+                future.get();
+                placed++;
+            }
+            catch (ExecutionException exception) {
+                assertThat(exception.getCause()).isInstanceOf(OutOfStockException.class);
+                outOfStock++;
+            }
+        }
+        assertThat(placed).isEqualTo(2);
+        assertThat(outOfStock).isEqualTo(1);
+        assertThat(stock()).isEqualTo(2L);
+    }
+
+    @DisplayName("batch 실패 시 개별 처리 테스트")
+    @Test
+    public void fallback_test() throws Exception {
+        // given
+        TransactionTemplate failing = new TransactionTemplate(transactionManager) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                throw new IllegalStateException("batch failure");
+            }
+        };
+        queue = newQueue(failing, Duration.ofMillis(50), Duration.ofSeconds(10));
+        List<UserAccount> users = newUsers(3, 1L);
+
+        // when
+        List<Future<OrderDTO>> futures = placeAll(users);
+
+        // then
+        for (Future<OrderDTO> future : futures) {
+            assertThat(future.get().id()).isNotNull();
+        }
+        assertThat(stock()).isEqualTo(7L);
+    }
+
+    @DisplayName("대기 시간 초과 테스트")
+    @Test
+    public void timeout_test() throws Exception {
+        // given
+        queue = newQueue(new TransactionTemplate(transactionManager), Duration.ofMillis(300), Duration.ofMillis(10));
+        UserAccount user = newUsers(1, 1L).get(0);
+
+        // when
+        assertThatThrownBy(() -> queue.place(user)).isInstanceOf(ServiceUnavailableException.class);
+        Thread.sleep(600);
+
+        // then
+        assertThat(stock()).isEqualTo(10L);
+        assertThat(cartRepository.findAllByUserAccountId(user.getId()).orElseThrow()).hasSize(1);
+    }
+
+    /*
+    -Dbenchmark=true 로 실행할 때만 동작하며, 같은 옵션에 몰린 주문을 요청마다 트랜잭션으로 처리할 때와 큐로 묶어 처리할 때를 비교한다.
+    H2 메모리 DB 에서는 commit 비용이 작아 차이가 작게 나오므로 여기서는 묶어 처리한 쪽이 느리지 않은지만 확인하고,
+    실제 차이는 MySQL 에서 local profile 로 실행해서 본다.
+     */
+    @DisplayName("주문 처리량 비교")
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @Test
+    public void throughput_benchmark() throws Exception {
+        int orders = 200;
+        option = newOption(orders * 2L);
+        queue = newQueue(new TransactionTemplate(transactionManager), Duration.ofMillis(5), Duration.ofSeconds(30));
+
+        List<UserAccount> direct = newUsers(orders, 1L);
+        long start = System.nanoTime();
+        for (Future<OrderDTO> future : submitAll(direct, orderService::save)) {
+            future.get();
+        }
+        long directNanos = System.nanoTime() - start;
+
+        List<UserAccount> batched = newUsers(orders, 1L);
+        start = System.nanoTime();
+        for (Future<OrderDTO> future : placeAll(batched)) {
+            future.get();
+        }
+        long batchedNanos = System.nanoTime() - start;
+
+        log.info("direct  : {} orders/s", orders * 1_000_000_000L / directNanos);
+        log.info("batched : {} orders/s", orders * 1_000_000_000L / batchedNanos);
+        assertThat(stock()).isZero();
+        assertThat(batchedNanos).isLessThanOrEqualTo(directNanos);
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private OrderPlacementQueue newQueue(TransactionTemplate transactionTemplate, Duration linger, Duration timeout) {
+        OrderPlacementQueue queue = new OrderPlacementQueue(
+                orderService, cartRepository, transactionTemplate, true, 1, 1024, 32, linger, timeout
+        );
+        queue.start();
+        return queue;
+    }
+
+    private ProductOption newOption(Long stock) {
+        Product product = productRepository.findById(1L).orElseThrow();
+        return optionRepository.save(ProductOption.builder()
+                .product(product)
+                .name("queue test")
+                .price(1000L)
+                .stock(stock)
+                .build());
+    }
+
+    private List<UserAccount> newUsers(int count, Long quantity) {
+        List<UserAccount> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String email = "queue" + sequence.incrementAndGet() + "@kakao.com";
+            UserAccount user = userAccountService.register(new UserRegisterRequest("queue", email, "qwer1234!", LocalDate.of(2000, 1, 1)));
+            cartRepository.save(Cart.builder().userAccount(user).productOption(option).quantity(quantity).build());
+            users.add(user);
+        }
+        return users;
+    }
+
+    private List<Future<OrderDTO>> placeAll(List<UserAccount> users) {
+        return submitAll(users, queue::place);
+    }
+
+    private List<Future<OrderDTO>> submitAll(List<UserAccount> users, Function<UserAccount, OrderDTO> place) {
+        List<Future<OrderDTO>> futures = new ArrayList<>();
+        users.forEach(user -> futures.add(executor.submit(() -> place.apply(user))));
+        return futures;
+    }
+
+    private Long stock() {
+        return optionRepository.findById(option.getId()).orElseThrow().getStock();
+    }
+}
@@ -0,0 +1,130 @@
+package com.kakao.shopping.domain.order;
+
+import com.kakao.shopping.domain.Cart;
+import com.kakao.shopping.domain.Product;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.order.UpdatedOrderItemDTO;
+import com.kakao.shopping.dto.order.request.OrderUpdateRequest;
+import com.kakao.shopping.dto.user.UserRegisterRequest;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.repository.ProductRepository;
+import com.kakao.shopping.service.OrderService;
+import com.kakao.shopping.service.UserAccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OrderService 변경 Test")
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderUpdateServiceTest {
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private final OrderService orderService;
+    private final UserAccountService userAccountService;
+    private final ProductRepository productRepository;
+    private final OptionRepository optionRepository;
+    private final CartRepository cartRepository;
+    private UserAccount user;
+    private ProductOption option;
+
+    public OrderUpdateServiceTest(
+            @Autowired OrderService orderService,
+            @Autowired UserAccountService userAccountService,
+            @Autowired ProductRepository productRepository,
+            @Autowired OptionRepository optionRepository,
+            @Autowired CartRepository cartRepository
+    ) {
+        this.orderService = orderService;
+        this.userAccountService = userAccountService;
+        this.productRepository = productRepository;
+        this.optionRepository = optionRepository;
+        this.cartRepository = cartRepository;
+    }
+
+    // 다른 테스트와 재고가 섞이지 않도록 옵션(재고 10)을 매번 새로 만든다.
+    @BeforeEach
+    public void setUp() {
+        String email = "update" + sequence.incrementAndGet() + "@kakao.com";
+        user = userAccountService.register(new UserRegisterRequest("update", email, "qwer1234!", LocalDate.of(2000, 1, 1)));
+        Product product = productRepository.findById(1L).orElseThrow();
+        option = optionRepository.save(ProductOption.of(product, "update test", 1000L, user));
+    }
+
+    @DisplayName("수량을 늘리면 주문 당시의 단가로 금액을 다시 계산하고 늘린 만큼 재고를 차감한다.")
+    @Test
+    public void update_increase_test() {
+        // given
+        Long orderId = placeOrder(3L);
+        changePrice(1500L);
+
+        // when
+        UpdatedOrderItemDTO result = orderService.update(new OrderUpdateRequest(orderId, option.getId(), 5L, "수량 추가"), user);
+
+        // then
+        assertThat(result.quantity()).isEqualTo(5L);
+        assertThat(result.price()).isEqualTo(5000L);
+        assertThat(result.totalPrice()).isEqualTo(5000L);
+        assertThat(stock()).isEqualTo(5L);
+    }
+
+    @DisplayName("수량을 줄이면 주문 당시의 단가로 금액을 다시 계산하고 줄인 만큼 재고를 돌려놓는다.")
+    @Test
+    public void update_decrease_test() {
+        // given
+        Long orderId = placeOrder(3L);
+        changePrice(700L);
+
+        // when
+        UpdatedOrderItemDTO result = orderService.update(new OrderUpdateRequest(orderId, option.getId(), 1L, "수량 감소"), user);
+
+        // then
+        assertThat(result.quantity()).isEqualTo(1L);
+        assertThat(result.price()).isEqualTo(1000L);
+        assertThat(result.totalPrice()).isEqualTo(1000L);
+        assertThat(stock()).isEqualTo(9L);
+    }
+
+    @DisplayName("한 번 줄인 뒤 다시 늘려도 단가가 그대로 유지된다.")
+    @Test
+    public void update_twice_test() {
+        // given
+        Long orderId = placeOrder(3L);
+        orderService.update(new OrderUpdateRequest(orderId, option.getId(), 1L, "수량 감소"), user);
+
+        // when
+        UpdatedOrderItemDTO result = orderService.update(new OrderUpdateRequest(orderId, option.getId(), 4L, "수량 추가"), user);
+
+        // then
+        assertThat(result.price()).isEqualTo(4000L);
+        assertThat(result.totalPrice()).isEqualTo(4000L);
+        assertThat(stock()).isEqualTo(6L);
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private Long placeOrder(Long quantity) {
+        cartRepository.save(Cart.builder().userAccount(user).productOption(option).quantity(quantity).build());
+        return orderService.save(user).id();
+    }
+
+    // 주문 후 재고가 바뀌었으므로 다시 읽은 옵션의 가격만 바꾼다.
+    private void changePrice(Long price) {
+        ProductOption current = optionRepository.findById(option.getId()).orElseThrow();
+        optionRepository.save(current.updatePrice(user, price));
+    }
+
+    private Long stock() {
+        return optionRepository.findById(option.getId()).orElseThrow().getStock();
+    }
+}
@@ -0,0 +1,151 @@
+package com.kakao.shopping.domain.order;
+
+import com.kakao.shopping.domain.Cart;
+import com.kakao.shopping.domain.Product;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.order.event.OrderPlacedEvent;
+import com.kakao.shopping.dto.user.UserRegisterRequest;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.repository.OutboxEventRepository;
+import com.kakao.shopping.repository.ProductRepository;
+import com.kakao.shopping.service.OrderService;
+import com.kakao.shopping.service.OutboxRelay;
+import com.kakao.shopping.service.OutboxService;
+import com.kakao.shopping.service.UserAccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+주기적인 relay 가 테스트보다 먼저 이벤트를 가져가지 않도록 relay 주기를 길게 두고, 전달받은 이벤트를 모으는 publisher 로 relay 를 직접 만든다.
+다른 테스트의 context 와 테이블이 섞이지 않도록 별도의 H2 database 를 사용한다.
+ */
+@DisplayName("OutboxRelay Test")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL",
+        "shopping.outbox.relay-interval-ms=3600000"
+})
+public class OutboxRelayTest {
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private final OrderService orderService;
+    private final UserAccountService userAccountService;
+    private final ProductRepository productRepository;
+    private final OptionRepository optionRepository;
+    private final CartRepository cartRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxService outboxService;
+    private UserAccount user;
+    private ProductOption option;
+
+    public OutboxRelayTest(
+            @Autowired OrderService orderService,
+            @Autowired UserAccountService userAccountService,
+            @Autowired ProductRepository productRepository,
+            @Autowired OptionRepository optionRepository,
+            @Autowired CartRepository cartRepository,
+            @Autowired OutboxEventRepository outboxEventRepository,
+            @Autowired OutboxService outboxService
+    ) {
+        this.orderService = orderService;
+        this.userAccountService = userAccountService;
+        this.productRepository = productRepository;
+        this.optionRepository = optionRepository;
+        this.cartRepository = cartRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxService = outboxService;
+    }
+
+    // 앞선 테스트가 남긴 이벤트가 없도록 모두 전달한 뒤 시작한다.
+    @BeforeEach
+    public void setUp() {
+        relayOf(event -> {}).relay();
+        String email = "outbox" + sequence.incrementAndGet() + "@kakao.com";
+        user = userAccountService.register(new UserRegisterRequest("outbox", email, "qwer1234!", LocalDate.of(2000, 1, 1)));
+        Product product = productRepository.findById(1L).orElseThrow();
+        option = optionRepository.save(ProductOption.of(product, "outbox test", 1000L, user));
+    }
+
+    @DisplayName("주문 이벤트를 전달하고 전달한 row 를 지운다.")
+    @Test
+    public void relay_test() {
+        // given
+        Long orderId = placeOrder();
+        assertThat(pendingOrderIds()).containsExactly(orderId);
+        List<Object> published = new ArrayList<>();
+
+        // when
+        relayOf(published::add).relay();
+
+        // then
+        assertThat(published)
+                .singleElement()
+                .isInstanceOfSatisfying(OrderPlacedEvent.class, event -> {
+                    assertThat(event.orderId()).isEqualTo(orderId);
+                    assertThat(event.userId()).isEqualTo(user.getId());
+                    assertThat(event.items()).extracting(OrderPlacedEvent.Item::optionId).containsExactly(option.getId());
+                });
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @DisplayName("핸들러가 실패하면 그 이전까지 전달한 row 만 지우고, 실패한 row 는 다음 relay 에서 다시 전달한다.")
+    @Test
+    public void relay_failure_test() {
+        // given
+        Long delivered = placeOrder();
+        Long failed = placeOrder();
+        List<Object> published = new ArrayList<>();
+        OutboxRelay failingRelay = relayOf(event -> {
+            if (event instanceof OrderPlacedEvent placed && placed.orderId().equals(failed)) {
+                throw new IllegalStateException("handler failed");
+            }
+            published.add(event);
+        });
+
+        // when
+        failingRelay.relay();
+
+        // then
+        assertThat(published).extracting(event -> ((OrderPlacedEvent) event).orderId()).containsExactly(delivered);
+        assertThat(pendingOrderIds()).containsExactly(failed);
+
+        List<Object> retried = new ArrayList<>();
+        relayOf(retried::add).relay();
+        assertThat(retried).extracting(event -> ((OrderPlacedEvent) event).orderId()).containsExactly(failed);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private OutboxRelay relayOf(ApplicationEventPublisher publisher) {
+        return new OutboxRelay(outboxEventRepository, outboxService, publisher, 100);
+    }
+
+    private Long placeOrder() {
+        cartRepository.save(Cart.builder().userAccount(user).productOption(option).quantity(1L).build());
+        return orderService.save(user).id();
+    }
+
+    private List<Long> pendingOrderIds() {
+        return outboxEventRepository.findAll()
+                .stream()
+                .map(event -> ((OrderPlacedEvent) outboxService.read(event)).orderId())
+                .toList();
+    }
+}
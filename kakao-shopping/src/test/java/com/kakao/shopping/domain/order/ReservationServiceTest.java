@@ -0,0 +1,139 @@
+package com.kakao.shopping.domain.order;
+
+import com.kakao.shopping.domain.Cart;
+import com.kakao.shopping.domain.Product;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
+import com.kakao.shopping.dto.user.UserRegisterRequest;
+import com.kakao.shopping.repository.CartRepository;
+import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.repository.ProductRepository;
+import com.kakao.shopping.service.OrderService;
+import com.kakao.shopping.service.ReservationIndex;
+import com.kakao.shopping.service.ReservationService;
+import com.kakao.shopping.service.StockReservationReaper;
+import com.kakao.shopping.service.UserAccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ReservationService Test")
+@SpringBootTest
+@ActiveProfiles("test")
+public class ReservationServiceTest {
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private final ReservationService reservationService;
+    private final StockReservationReaper reservationReaper;
+    private final ReservationIndex reservationIndex;
+    private final OrderService orderService;
+    private final UserAccountService userAccountService;
+    private final ProductRepository productRepository;
+    private final OptionRepository optionRepository;
+    private final CartRepository cartRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private UserAccount user;
+    private ProductOption option;
+
+    public ReservationServiceTest(
+            @Autowired ReservationService reservationService,
+            @Autowired StockReservationReaper reservationReaper,
+            @Autowired ReservationIndex reservationIndex,
+            @Autowired OrderService orderService,
+            @Autowired UserAccountService userAccountService,
+            @Autowired ProductRepository productRepository,
+            @Autowired OptionRepository optionRepository,
+            @Autowired CartRepository cartRepository,
+            @Autowired JdbcTemplate jdbcTemplate
+    ) {
+        this.reservationService = reservationService;
+        this.reservationReaper = reservationReaper;
+        this.reservationIndex = reservationIndex;
+        this.orderService = orderService;
+        this.userAccountService = userAccountService;
+        this.productRepository = productRepository;
+        this.optionRepository = optionRepository;
+        this.cartRepository = cartRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 다른 테스트와 재고가 섞이지 않도록 사용자와 옵션(재고 10)을 매번 새로 만든다.
+    @BeforeEach
+    public void setUp() {
+        String email = "reservation" + sequence.incrementAndGet() + "@kakao.com";
+        user = userAccountService.register(new UserRegisterRequest("reservation", email, "qwer1234!", LocalDate.of(2000, 1, 1)));
+        Product product = productRepository.findById(1L).orElseThrow();
+        option = optionRepository.save(ProductOption.of(product, "reservation test", 1000L, user));
+        cartRepository.save(Cart.builder().userAccount(user).productOption(option).quantity(3L).build());
+    }
+
+    @DisplayName("예약 재고 선점 테스트")
+    @Test
+    public void reserve_test() {
+        // given
+
+        // when
+        reservationService.reserve(user);
+        reservationService.reserve(user);
+
+        // then
+        assertThat(stock()).isEqualTo(7L);
+        assertThat(reservationCount()).isEqualTo(1L);
+        assertThat(reservationIndex.find(user.getId(), List.of(option.getId()))).hasSize(1);
+    }
+
+    @DisplayName("주문 시 예약 사용 테스트")
+    @Test
+    public void consume_test() {
+        // given
+        reservationService.reserve(user);
+
+        // when
+        orderService.save(user);
+
+        // then
+        assertThat(stock()).isEqualTo(7L);
+        assertThat(reservationCount()).isZero();
+        assertThat(reservationIndex.find(user.getId(), List.of(option.getId()))).isEmpty();
+    }
+
+    @DisplayName("만료된 예약 회수 테스트")
+    @Test
+    public void reap_test() {
+        // given
+        reservationService.reserve(user);
+        jdbcTemplate.update(
+                "update stock_reservation set expires_at = ? where user_account_id = ?",
+                LocalDateTime.now().minusMinutes(1), user.getId()
+        );
+
+        // when
+        reservationReaper.reap();
+
+        // then
+        assertThat(stock()).isEqualTo(10L);
+        assertThat(reservationCount()).isZero();
+        assertThat(reservationIndex.find(user.getId(), List.of(option.getId()))).isEmpty();
+    }
+
+    private Long stock() {
+        return optionRepository.findById(option.getId()).orElseThrow().getStock();
+    }
+
+    private Long reservationCount() {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from stock_reservation where user_account_id = ?", Long.class, user.getId()
+        );
+    }
+}
@@ -1,34 +1,63 @@
 package com.kakao.shopping.domain.product;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kakao.shopping._core.security.CustomUserDetails;
+import com.kakao.shopping.domain.Product;
+import com.kakao.shopping.domain.ProductOption;
+import com.kakao.shopping.domain.UserAccount;
 import com.kakao.shopping.dto.product.request.OptionStockUpdateRequest;
+import com.kakao.shopping.dto.product.request.OptionUpdateRequest;
 import com.kakao.shopping.dto.product.request.ProductUpdateRequest;
+import com.kakao.shopping.dto.user.UserRegisterRequest;
+import com.kakao.shopping.repository.OptionRepository;
+import com.kakao.shopping.repository.ProductRepository;
+import com.kakao.shopping.service.UserAccountService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @DisplayName("Product Controller Test")
 @AutoConfigureMockMvc
 @SpringBootTest
+@ActiveProfiles("test")
 public class ProductControllerTest {
+    private static final AtomicLong sequence = new AtomicLong();
+
     private final MockMvc mockMvc;
     private final ObjectMapper objectMapper;
+    private final UserAccountService userAccountService;
+    private final ProductRepository productRepository;
+    private final OptionRepository optionRepository;
 
     public ProductControllerTest(
             @Autowired MockMvc mockMvc,
-            @Autowired ObjectMapper objectMapper
+            @Autowired ObjectMapper objectMapper,
+            @Autowired UserAccountService userAccountService,
+            @Autowired ProductRepository productRepository,
+            @Autowired OptionRepository optionRepository
     ) {
         this.mockMvc = mockMvc;
         this.objectMapper = objectMapper;
+        this.userAccountService = userAccountService;
+        this.productRepository = productRepository;
+        this.optionRepository = optionRepository;
     }
 
     @DisplayName("GET /product : success")
@@ -115,4 +144,96 @@ public class ProductControllerTest {
         resultActions.andExpect(jsonPath("$.response.image").value(testImage));
         resultActions.andExpect(jsonPath("$.response.price").value(testPrice));
     }
+
+    @DisplayName("GET /product/{id} : 상품이 바뀌지 않았다면 304")
+    @Test
+    public void find_by_id_not_modified_test() throws Exception {
+        // given
+        Long productId = 1L;
+        String eTag = mockMvc.perform(get("/product/" + productId)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when
+        ResultActions resultActions = mockMvc.perform(
+                get("/product/" + productId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+        );
+
+        // then
+        assertThat(eTag).isNotNull();
+        resultActions.andExpect(status().isNotModified());
+    }
+
+    @DisplayName("GET /product/{id} : 상품의 이름이 바뀌면 ETag 가 바뀐다.")
+    @Test
+    public void find_by_id_product_renamed_test() throws Exception {
+        // given
+        UserAccount userAccount = register();
+        ProductOption option = saveOption(userAccount);
+        Product product = option.getProduct();
+        String eTag = findETag(product.getId());
+        String requestBody = objectMapper.writeValueAsString(
+                new ProductUpdateRequest("renamed product", product.getDescription(), product.getImage(), product.getPrice())
+        );
+        mockMvc.perform(
+                put("/product/" + product.getId())
+                        .with(user(new CustomUserDetails(userAccount)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody)
+        ).andExpect(jsonPath("$.success").value("true"));
+
+        // when
+        ResultActions resultActions = mockMvc.perform(
+                get("/product/" + product.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+        );
+
+        // then
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.response.name").value("renamed product"));
+        assertThat(resultActions.andReturn().getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag);
+    }
+
+    @DisplayName("GET /product/{id} : 옵션의 이름이 바뀌면 ETag 가 바뀐다.")
+    @Test
+    public void find_by_id_option_renamed_test() throws Exception {
+        // given
+        UserAccount userAccount = register();
+        ProductOption option = saveOption(userAccount);
+        Long productId = option.getProduct().getId();
+        String eTag = findETag(productId);
+        String requestBody = objectMapper.writeValueAsString(new OptionUpdateRequest("renamed option", option.getPrice()));
+        mockMvc.perform(
+                put("/product/option/" + option.getId())
+                        .with(user(new CustomUserDetails(userAccount)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody)
+        ).andExpect(jsonPath("$.success").value("true"));
+
+        // when
+        ResultActions resultActions = mockMvc.perform(
+                get("/product/" + productId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+        );
+
+        // then
+        resultActions.andExpect(status().isOk());
+        assertThat(resultActions.andReturn().getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag);
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    private UserAccount register() {
+        String email = "productetag" + sequence.incrementAndGet() + "@kakao.com";
+        return userAccountService.register(new UserRegisterRequest("productetag", email, "qwer1234!", LocalDate.of(2000, 1, 1)));
+    }
+
+    // 다른 테스트가 보는 상품 이름을 바꾸지 않도록 사용자가 직접 등록한 상품과 옵션을 쓴다.
+    private ProductOption saveOption(UserAccount userAccount) {
+        Product product = productRepository.save(Product.of("etag product", "", "", 1000L, userAccount));
+        return optionRepository.save(ProductOption.of(product, "etag option", 1000L, userAccount));
+    }
+
+    private String findETag(Long productId) throws Exception {
+        return mockMvc.perform(get("/product/" + productId)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
 }
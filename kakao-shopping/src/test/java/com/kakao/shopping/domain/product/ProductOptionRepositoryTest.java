@@ -14,11 +14,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DisplayName("ProductOption Test")
 @SpringBootTest
+@ActiveProfiles("test")
 public class ProductOptionRepositoryTest {
     private final OptionRepository optionRepository;
     private final ProductRepository productRepository;
@@ -106,4 +108,23 @@ public class ProductOptionRepositoryTest {
         // then
         assertThat(optionRepository.count()).isEqualTo(previous_count - 1);
     }
+
+    @DisplayName("재고 조건부 차감 테스트")
+    @Test
+    public void decrease_stock_test() {
+        // given
+        // 다른 테스트가 쓰는 시드 옵션의 재고를 바꾸지 않도록 옵션(재고 10)을 새로 만든다.
+        Product product = productRepository.findById(1L).orElseThrow();
+        Long optionId = optionRepository.save(ProductOption.of(product, "decrease test", 1000L, userDetails.getUserAccount())).getId();
+        Long stock = optionRepository.findById(optionId).orElseThrow().getStock();
+
+        // when
+        int decreased = optionRepository.decreaseStock(optionId, 1L);
+        int overflowed = optionRepository.decreaseStock(optionId, stock);
+
+        // then
+        assertThat(decreased).isEqualTo(1);
+        assertThat(overflowed).isEqualTo(0);
+        assertThat(optionRepository.findById(optionId).orElseThrow().getStock()).isEqualTo(stock - 1);
+    }
 }
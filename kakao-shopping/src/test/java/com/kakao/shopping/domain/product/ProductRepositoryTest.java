@@ -15,6 +15,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
 
@@ -22,6 +23,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 @DisplayName("Product Repository Test")
 @SpringBootTest
+@ActiveProfiles("test")
 public class ProductRepositoryTest {
     private final ProductRepository productRepository;
     private final OptionRepository optionRepository;